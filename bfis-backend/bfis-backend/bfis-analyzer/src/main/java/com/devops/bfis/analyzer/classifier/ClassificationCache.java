@@ -0,0 +1,164 @@
+package com.devops.bfis.analyzer.classifier;
+
+import com.devops.bfis.core.enums.FailureType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of message classification results
+ *
+ * The same error messages recur across thousands of builds, so results are
+ * cached under the 64-bit hash of the exact message. The normalized
+ * (fingerprint) form is not used as key: it replaces paths, numbers and
+ * hashes that rules match on, so messages sharing a fingerprint can
+ * classify differently.
+ *
+ * - Entries are spread over independently locked segments, each an
+ *   access-ordered LinkedHashMap evicting its least recently used entry
+ * - The cache is cleared whenever the rule engine swaps in new rules; a result
+ *   computed against the old rules is never stored after the swap
+ */
+@Component
+public class ClassificationCache {
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int maxEntries;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ClassificationCache(
+            FailureRuleEngine ruleEngine,
+            @Value("${bfis.classifier.cache-max-entries:10000}") int maxEntries
+    ) {
+        this.maxEntries = Math.max(maxEntries, SEGMENTS);
+        int perSegment = (this.maxEntries + SEGMENTS - 1) / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+        ruleEngine.addReloadListener(this::invalidateAll);
+    }
+
+    /**
+     * Cached result for a message hash, computing and storing it on a miss
+     *
+     * @param key Hash of the message
+     * @param loader Classification to run on a miss
+     */
+    public FailureType get(long key, Supplier<FailureType> loader) {
+        Segment segment = segmentFor(key);
+        FailureType cached;
+        synchronized (segment) {
+            cached = segment.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        long seenGeneration = generation.get();
+        FailureType computed = loader.get();
+        synchronized (segment) {
+            if (generation.get() == seenGeneration) {
+                segment.put(key, computed);
+            }
+        }
+        return computed;
+    }
+
+    /**
+     * Drop the cached result of one message hash
+     *
+     * Results being computed meanwhile are not stored, so none computed
+     * before the call can reappear under the key.
+     */
+    public void invalidate(long key) {
+        generation.incrementAndGet();
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    /**
+     * Drop every cached result (rules changed)
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * Hit/miss counters and current size
+     */
+    public CacheStats getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return new CacheStats(
+                size,
+                maxEntries,
+                hitCount,
+                missCount,
+                lookups == 0 ? 0.0 : (double) hitCount / lookups,
+                evictions.sum(),
+                invalidations.sum()
+        );
+    }
+
+    private Segment segmentFor(long key) {
+        // Fold the high bits in: FNV low bits alone are well mixed, but be safe for any hash
+        int h = (int) (key ^ (key >>> 32));
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private final class Segment extends LinkedHashMap<Long, FailureType> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, FailureType> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    public record CacheStats(
+            int size,
+            int maxEntries,
+            long hits,
+            long misses,
+            double hitRatio,
+            long evictions,
+            long invalidations
+    ) {}
+}
@@ -0,0 +1,168 @@
+package com.devops.bfis.analyzer.classifier;
+
+import com.devops.bfis.analyzer.service.FailureFingerprinter;
+import com.devops.bfis.core.enums.FailureType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Keyword-based failure classifier shared by every ingest path
+ *
+ * Error messages are classified by the configurable FailureRuleEngine,
+ * optionally overridden by the learned NaiveBayesClassifier when it is more
+ * confident, with results cached per exact message (ClassificationCache).
+ * CI step/job name keywords and infrastructure conclusions are compiled into
+ * one Aho-Corasick automaton, so each classification is a single pass over
+ * the input regardless of how many keywords exist.
+ *
+ * Priorities (first match wins):
+ * - Error messages:   rule file order (or a more confident model prediction), infra when nothing matches
+ * - Step / job names: docker > dependency > test > infra (default)
+ * - Conclusions timed_out / cancelled / startup_failure are always infra
+ *
+ * Feedback changes the model, and with it possibly any cached result. The
+ * corrected message's entry is dropped right away; the rest of the cache
+ * is cleared at most once per bfis.classifier.bayes.cache-refresh-interval
+ * while feedback keeps arriving, not on every call.
+ */
+@Component
+public class FailureClassifier {
+
+    // Keyword groups (bit positions in the automaton match mask)
+    private static final int STEP_DOCKER = 0;
+    private static final int STEP_DEPENDENCY = 1;
+    private static final int STEP_TEST = 2;
+    private static final int CONCLUSION_INFRA = 3;
+
+    private static final KeywordAutomaton AUTOMATON = KeywordAutomaton.builder()
+            .add(STEP_DOCKER, "docker")
+            .add(STEP_DEPENDENCY, "depend", "install", "npm", "pnpm", "mvn", "maven", "gradle")
+            .add(STEP_TEST, "test")
+            .add(CONCLUSION_INFRA, "timed_out", "cancelled", "startup_failure")
+            .build();
+
+    private final FailureRuleEngine ruleEngine;
+    private final ClassificationCache cache;
+    private final FailureFingerprinter fingerprinter;
+    private final NaiveBayesClassifier model;
+    private final long cacheRefreshIntervalNanos;
+
+    // Model trained since the cache was last cleared
+    private volatile boolean modelChanged;
+    private volatile long lastCacheRefreshNanos = System.nanoTime();
+
+    public FailureClassifier(
+            FailureRuleEngine ruleEngine,
+            ClassificationCache cache,
+            FailureFingerprinter fingerprinter,
+            NaiveBayesClassifier model,
+            @Value("${bfis.classifier.bayes.cache-refresh-interval:PT1M}") Duration cacheRefreshInterval
+    ) {
+        this.ruleEngine = ruleEngine;
+        this.cache = cache;
+        this.fingerprinter = fingerprinter;
+        this.model = model;
+        this.cacheRefreshIntervalNanos = cacheRefreshInterval.toNanos();
+    }
+
+    /**
+     * Categorize a free-text error message (or log excerpt)
+     *
+     * Repeated messages are answered from the cache. The key is the raw
+     * message: normalization folds paths and numbers that rules may look at.
+     *
+     * @param message Error message to analyze
+     * @return Detected failure type, INFRA when nothing matches
+     */
+    public FailureType classifyMessage(CharSequence message) {
+        if (message == null || message.length() == 0) {
+            return FailureType.INFRA;
+        }
+        refreshCacheIfDue();
+        long key = fingerprinter.hash64(message);
+        return cache.get(key, () -> {
+            FailureType type = ruleEngine.match(message);
+            FailureType predicted = model.override(message, type != null);
+            if (predicted != null) {
+                return predicted;
+            }
+            return type != null ? type : FailureType.INFRA;
+        });
+    }
+
+    /**
+     * Learn from a corrected label
+     *
+     * The cache is cleared when the model starts predicting; afterwards only
+     * the corrected message's entry is dropped and the rest is refreshed by
+     * refreshCacheIfDue.
+     */
+    public void learn(CharSequence message, FailureType correctType) {
+        boolean wasReady = model.isReady();
+        model.train(message, correctType);
+        if (!model.isReady() || message == null) {
+            return;
+        }
+        if (!wasReady) {
+            clearCache();
+            return;
+        }
+        modelChanged = true;
+        cache.invalidate(fingerprinter.hash64(message));
+    }
+
+    /**
+     * Clear results cached before recent training, at most once per refresh interval
+     */
+    private void refreshCacheIfDue() {
+        if (modelChanged && System.nanoTime() - lastCacheRefreshNanos >= cacheRefreshIntervalNanos) {
+            synchronized (this) {
+                if (modelChanged && System.nanoTime() - lastCacheRefreshNanos >= cacheRefreshIntervalNanos) {
+                    clearCache();
+                }
+            }
+        }
+    }
+
+    private void clearCache() {
+        // Reset before clearing: training that lands meanwhile is flagged again
+        modelChanged = false;
+        lastCacheRefreshNanos = System.nanoTime();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Categorize a failed CI step (or job) from its conclusion and name
+     *
+     * @param conclusion GitHub step/job conclusion, may be null
+     * @param stepName Step or job name, may be null
+     * @return Detected failure type, INFRA when nothing matches
+     */
+    public FailureType classifyStep(String conclusion, String stepName) {
+        if (isInfraConclusion(conclusion) || stepName == null) {
+            return FailureType.INFRA;
+        }
+        long matched = AUTOMATON.match(stepName, bit(STEP_DOCKER));
+        if (has(matched, STEP_DOCKER)) return FailureType.DOCKER;
+        if (has(matched, STEP_DEPENDENCY)) return FailureType.DEPENDENCY;
+        if (has(matched, STEP_TEST)) return FailureType.TEST;
+        return FailureType.INFRA;
+    }
+
+    /**
+     * Whether a run/step conclusion points at infrastructure (timeouts, cancellations, runner startup)
+     */
+    public boolean isInfraConclusion(String conclusion) {
+        return conclusion != null && has(AUTOMATON.match(conclusion, bit(CONCLUSION_INFRA)), CONCLUSION_INFRA);
+    }
+
+    private static long bit(int group) {
+        return 1L << group;
+    }
+
+    private static boolean has(long mask, int group) {
+        return (mask & bit(group)) != 0L;
+    }
+}
@@ -0,0 +1,352 @@
+package com.devops.bfis.analyzer.classifier;
+
+import com.devops.bfis.core.enums.FailureType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Ordered, hot-reloadable rule engine for error message classification
+ *
+ * Rules map a keyword or regex to a FailureType and are loaded from a local
+ * config file (bfis.classifier.rules-path), falling back to the bundled
+ * failure-rules.conf. The first matching rule in file order wins.
+ *
+ * Evaluation order (cheapest first, same result as evaluating top to bottom):
+ * 1. All keyword rules run as one Aho-Corasick pass, yielding the earliest
+ *    matching keyword rule
+ * 2. Only regex rules positioned before that keyword rule are evaluated,
+ *    in order, stopping at the first match
+ *
+ * Rules are compiled once per load and swapped atomically, so classification
+ * never blocks on a reload. Each compiled rule set keeps its own hit counters
+ * and evaluation timings.
+ */
+@Component
+@Slf4j
+public class FailureRuleEngine {
+    private static final String DEFAULT_RULES_RESOURCE = "failure-rules.conf";
+
+    private final String rulesPath;
+    private final long reloadIntervalMs;
+    private final AtomicReference<CompiledRules> current = new AtomicReference<>();
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService watcher;
+    private volatile FileStamp loadedStamp;
+    private volatile String lastError;
+
+    public FailureRuleEngine(
+            @Value("${bfis.classifier.rules-path:}") String rulesPath,
+            @Value("${bfis.classifier.rules-reload-interval-ms:5000}") long reloadIntervalMs
+    ) {
+        this.rulesPath = rulesPath == null ? "" : rulesPath.trim();
+        this.reloadIntervalMs = reloadIntervalMs;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (rulesPath.isEmpty()) {
+            current.set(loadBundledRules());
+            log.info("Loaded {} failure classification rules from classpath:{}",
+                    current.get().rules.size(), DEFAULT_RULES_RESOURCE);
+            return;
+        }
+
+        if (!reloadIfChanged()) {
+            log.warn("Falling back to bundled failure rules: {}", lastError);
+            current.set(loadBundledRules());
+        }
+
+        if (reloadIntervalMs > 0) {
+            watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "bfis-rule-watcher");
+                t.setDaemon(true);
+                return t;
+            });
+            watcher.scheduleWithFixedDelay(this::reloadIfChanged, reloadIntervalMs, reloadIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+    }
+
+    /**
+     * Classify a message against the active rules
+     *
+     * @param message Error message or log excerpt, read in place
+     * @return Type of the first matching rule, or null when no rule matches
+     */
+    public FailureType match(CharSequence message) {
+        CompiledRules rules = current.get();
+        long start = System.nanoTime();
+
+        int winner = rules.keywords != null ? rules.keywords.lowestMatch(message, rules.firstKeywordIndex) : -1;
+        rules.keywordPassNanos.add(System.nanoTime() - start);
+
+        int limit = winner >= 0 ? winner : Integer.MAX_VALUE;
+        if (message != null) {
+            for (Rule rule : rules.regexRules) {
+                if (rule.index >= limit) {
+                    break;
+                }
+                long evalStart = System.nanoTime();
+                boolean found = rule.regex.matcher(message).find();
+                rule.evaluations.increment();
+                rule.evaluationNanos.add(System.nanoTime() - evalStart);
+                if (found) {
+                    winner = rule.index;
+                    break;
+                }
+            }
+        }
+
+        rules.classifications.increment();
+        rules.totalNanos.add(System.nanoTime() - start);
+        if (winner < 0) {
+            rules.unmatched.increment();
+            return null;
+        }
+        Rule rule = rules.rules.get(winner);
+        rule.hits.increment();
+        return rule.type;
+    }
+
+    /**
+     * Re-read the rules file if its timestamp or size changed
+     *
+     * A file that fails to parse leaves the active rules untouched.
+     *
+     * @return true if the active rules come from the configured file
+     */
+    public synchronized boolean reloadIfChanged() {
+        if (rulesPath.isEmpty()) {
+            return false;
+        }
+        Path path = Path.of(rulesPath);
+        try {
+            FileStamp stamp = new FileStamp(Files.getLastModifiedTime(path).toMillis(), Files.size(path));
+            if (stamp.equals(loadedStamp)) {
+                return true;
+            }
+            CompiledRules compiled;
+            try (InputStream in = Files.newInputStream(path)) {
+                compiled = compile(in, path.toString());
+            }
+            current.set(compiled);
+            loadedStamp = stamp;
+            lastError = null;
+            log.info("Loaded {} failure classification rules from {}", compiled.rules.size(), path);
+            reloadListeners.forEach(Runnable::run);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            lastError = e.getClass().getSimpleName() + ": " + e.getMessage();
+            log.warn("Failed to load failure rules from {}: {}", path, lastError);
+            return loadedStamp != null;
+        }
+    }
+
+    /**
+     * Register a callback run after new rules have been swapped in
+     */
+    public void addReloadListener(Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
+    /**
+     * Snapshot of the active rule set with hit counters and timings
+     */
+    public RuleEngineStats getStats() {
+        CompiledRules rules = current.get();
+        long classifications = rules.classifications.sum();
+        List<RuleStats> ruleStats = new ArrayList<>(rules.rules.size());
+        for (Rule rule : rules.rules) {
+            long evaluations = rule.kind == RuleKind.KEYWORD ? classifications : rule.evaluations.sum();
+            long avgNanos = rule.kind == RuleKind.KEYWORD || evaluations == 0 ? 0 : rule.evaluationNanos.sum() / evaluations;
+            ruleStats.add(new RuleStats(rule.index, rule.type, rule.kind.name().toLowerCase(Locale.ROOT),
+                    rule.pattern, rule.hits.sum(), evaluations, avgNanos));
+        }
+        return new RuleEngineStats(
+                rules.source,
+                rules.loadedAt,
+                lastError,
+                classifications,
+                rules.unmatched.sum(),
+                classifications == 0 ? 0 : rules.keywordPassNanos.sum() / classifications,
+                classifications == 0 ? 0 : rules.totalNanos.sum() / classifications,
+                ruleStats
+        );
+    }
+
+    private CompiledRules loadBundledRules() {
+        try (InputStream in = new ClassPathResource(DEFAULT_RULES_RESOURCE).getInputStream()) {
+            return compile(in, "classpath:" + DEFAULT_RULES_RESOURCE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Bundled failure rules are missing: " + DEFAULT_RULES_RESOURCE, e);
+        }
+    }
+
+    /**
+     * Parse and precompile a rules file
+     *
+     * Line format: {@code <failure-type> <keyword|regex> <pattern>}
+     * Blank lines and lines starting with '#' are ignored.
+     */
+    static CompiledRules compile(InputStream in, String source) throws IOException {
+        List<Rule> rules = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = trimmed.split("\\s+", 3);
+                if (parts.length < 3) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected '<type> <keyword|regex> <pattern>'");
+                }
+                FailureType type = parseType(parts[0], lineNumber);
+                RuleKind kind = parseKind(parts[1], lineNumber);
+                String pattern = parts[2];
+                Pattern regex = null;
+                if (kind == RuleKind.REGEX) {
+                    try {
+                        regex = Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
+                    } catch (PatternSyntaxException e) {
+                        throw new IllegalArgumentException("Line " + lineNumber + ": invalid regex: " + e.getDescription());
+                    }
+                }
+                rules.add(new Rule(rules.size(), type, kind, pattern, regex));
+            }
+        }
+        return new CompiledRules(rules, source);
+    }
+
+    private static FailureType parseType(String value, int lineNumber) {
+        for (FailureType type : FailureType.values()) {
+            if (type.getValue().equalsIgnoreCase(value) || type.name().equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Line " + lineNumber + ": unknown failure type '" + value + "'");
+    }
+
+    private static RuleKind parseKind(String value, int lineNumber) {
+        try {
+            return RuleKind.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": unknown rule kind '" + value + "' (keyword|regex)");
+        }
+    }
+
+    enum RuleKind {
+        KEYWORD,
+        REGEX
+    }
+
+    private record FileStamp(long modifiedMillis, long size) {}
+
+    private static final class Rule {
+        final int index;
+        final FailureType type;
+        final RuleKind kind;
+        final String pattern;
+        final Pattern regex;
+        final LongAdder hits = new LongAdder();
+        final LongAdder evaluations = new LongAdder();
+        final LongAdder evaluationNanos = new LongAdder();
+
+        Rule(int index, FailureType type, RuleKind kind, String pattern, Pattern regex) {
+            this.index = index;
+            this.type = type;
+            this.kind = kind;
+            this.pattern = pattern;
+            this.regex = regex;
+        }
+    }
+
+    static final class CompiledRules {
+        final List<Rule> rules;
+        final List<Rule> regexRules;
+        final KeywordAutomaton keywords;
+        final int firstKeywordIndex;
+        final String source;
+        final Instant loadedAt = Instant.now();
+        final LongAdder classifications = new LongAdder();
+        final LongAdder unmatched = new LongAdder();
+        final LongAdder keywordPassNanos = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+
+        CompiledRules(List<Rule> rules, String source) {
+            this.rules = List.copyOf(rules);
+            this.source = source;
+
+            List<Rule> regexRules = new ArrayList<>();
+            KeywordAutomaton.Builder builder = KeywordAutomaton.builder();
+            int firstKeyword = -1;
+            for (Rule rule : rules) {
+                if (rule.kind == RuleKind.REGEX) {
+                    regexRules.add(rule);
+                } else {
+                    builder.add(rule.index, rule.pattern);
+                    if (firstKeyword < 0) {
+                        firstKeyword = rule.index;
+                    }
+                }
+            }
+            this.regexRules = List.copyOf(regexRules);
+            this.keywords = firstKeyword >= 0 ? builder.build() : null;
+            this.firstKeywordIndex = firstKeyword;
+        }
+    }
+
+    public record RuleStats(
+            int index,
+            FailureType failureType,
+            String kind,
+            String pattern,
+            long hits,
+            long evaluations,
+            long avgEvaluationNanos
+    ) {}
+
+    public record RuleEngineStats(
+            String source,
+            Instant loadedAt,
+            String lastError,
+            long classifications,
+            long unmatched,
+            long avgKeywordPassNanos,
+            long avgClassificationNanos,
+            List<RuleStats> rules
+    ) {}
+}
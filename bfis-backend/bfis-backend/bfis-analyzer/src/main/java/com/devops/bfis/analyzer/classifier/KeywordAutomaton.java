@@ -0,0 +1,243 @@
+package com.devops.bfis.analyzer.classifier;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Aho-Corasick multi-pattern matcher compiled into a dense DFA
+ *
+ * Every keyword belongs to a group. Scanning a text returns either a bitmask
+ * of the groups (0..63) whose keywords occur anywhere in it, or the lowest
+ * matching group id (for ordered rule lists), so all keyword sets are checked
+ * in a single pass over the input.
+ *
+ * Matching is ASCII case-insensitive and reads the input through CharSequence,
+ * so callers never need to lowercase or copy the text first. Input length is the
+ * only factor in matching cost: one table lookup per character.
+ *
+ * Instances are immutable after construction and safe to share between threads.
+ */
+public final class KeywordAutomaton {
+
+    /** Character class for any character that does not occur in a keyword */
+    private static final int OTHER = 0;
+
+    /** ASCII character -> character class */
+    private final int[] charClass = new int[128];
+    private final int classCount;
+
+    /** transitions[state * classCount + class] -> next state */
+    private final int[] transitions;
+
+    /** Group bitmask emitted when reaching each state (includes suffix matches, groups 0..63 only) */
+    private final long[] outputs;
+
+    /** Lowest group id emitted when reaching each state, Integer.MAX_VALUE if none */
+    private final int[] lowest;
+
+    private KeywordAutomaton(Builder builder) {
+        // 1. Character classes: one per distinct keyword character, 0 for everything else
+        int classes = 1;
+        for (Keyword keyword : builder.keywords) {
+            for (int i = 0; i < keyword.text.length(); i++) {
+                char c = keyword.text.charAt(i);
+                if (charClass[c] == OTHER) {
+                    charClass[c] = classes++;
+                }
+            }
+        }
+        this.classCount = classes;
+
+        // 2. Trie
+        List<int[]> trie = new ArrayList<>();
+        List<Long> out = new ArrayList<>();
+        List<Integer> low = new ArrayList<>();
+        trie.add(newRow(classCount));
+        out.add(0L);
+        low.add(Integer.MAX_VALUE);
+        for (Keyword keyword : builder.keywords) {
+            int state = 0;
+            for (int i = 0; i < keyword.text.length(); i++) {
+                int cls = charClass[keyword.text.charAt(i)];
+                int next = trie.get(state)[cls];
+                if (next < 0) {
+                    next = trie.size();
+                    trie.add(newRow(classCount));
+                    out.add(0L);
+                    low.add(Integer.MAX_VALUE);
+                    trie.get(state)[cls] = next;
+                }
+                state = next;
+            }
+            if (keyword.group < 64) {
+                out.set(state, out.get(state) | (1L << keyword.group));
+            }
+            low.set(state, Math.min(low.get(state), keyword.group));
+        }
+
+        // 3. Failure links (BFS), folded directly into a complete transition table
+        int states = trie.size();
+        int[] fail = new int[states];
+        this.transitions = new int[states * classCount];
+        this.outputs = new long[states];
+        this.lowest = new int[states];
+        for (int s = 0; s < states; s++) {
+            outputs[s] = out.get(s);
+            lowest[s] = low.get(s);
+        }
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int cls = 0; cls < classCount; cls++) {
+            int next = trie.get(0)[cls];
+            if (next < 0 || cls == OTHER) {
+                transitions[cls] = 0;
+            } else {
+                transitions[cls] = next;
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] |= outputs[fail[state]];
+            lowest[state] = Math.min(lowest[state], lowest[fail[state]]);
+            for (int cls = 0; cls < classCount; cls++) {
+                int next = trie.get(state)[cls];
+                if (next < 0 || cls == OTHER) {
+                    transitions[state * classCount + cls] = transitions[fail[state] * classCount + cls];
+                } else {
+                    transitions[state * classCount + cls] = next;
+                    fail[next] = transitions[fail[state] * classCount + cls];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Scan the whole text and return the bitmask of matched groups
+     */
+    public long match(CharSequence text) {
+        return match(text, 0L);
+    }
+
+    /**
+     * Scan the text, stopping as soon as any group in stopMask has matched
+     *
+     * @param text Input to scan (may be null)
+     * @param stopMask Groups whose match makes the rest of the scan irrelevant
+     * @return Bitmask of groups matched so far
+     */
+    public long match(CharSequence text, long stopMask) {
+        if (text == null) {
+            return 0L;
+        }
+        long matched = 0L;
+        int state = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            int cls = c < 128 ? charClass[c] : OTHER;
+            state = transitions[state * classCount + cls];
+            long out = outputs[state];
+            if (out != 0L) {
+                matched |= out;
+                if ((matched & stopMask) != 0L) {
+                    return matched;
+                }
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Scan the text and return the lowest matching group id
+     *
+     * Used for ordered rule lists where the group id is the rule position:
+     * the scan stops early once a group at or below stopAt has matched.
+     *
+     * @return Lowest matching group id, or -1 when nothing matches
+     */
+    public int lowestMatch(CharSequence text, int stopAt) {
+        if (text == null) {
+            return -1;
+        }
+        int best = Integer.MAX_VALUE;
+        int state = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            int cls = c < 128 ? charClass[c] : OTHER;
+            state = transitions[state * classCount + cls];
+            int id = lowest[state];
+            if (id < best) {
+                best = id;
+                if (best <= stopAt) {
+                    return best;
+                }
+            }
+        }
+        return best == Integer.MAX_VALUE ? -1 : best;
+    }
+
+    /**
+     * Number of DFA states (diagnostics)
+     */
+    public int stateCount() {
+        return outputs.length;
+    }
+
+    private static int[] newRow(int width) {
+        int[] row = new int[width];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private record Keyword(String text, int group) {}
+
+    public static final class Builder {
+        private final List<Keyword> keywords = new ArrayList<>();
+
+        /**
+         * Register keywords for a group
+         *
+         * @param group Group id; groups 0..63 are also reported in the match bitmask
+         * @param words ASCII keywords, matched case-insensitively
+         */
+        public Builder add(int group, String... words) {
+            if (group < 0) {
+                throw new IllegalArgumentException("Keyword group must not be negative: " + group);
+            }
+            for (String word : words) {
+                if (word == null || word.isEmpty()) {
+                    throw new IllegalArgumentException("Keyword must not be empty");
+                }
+                String lower = word.toLowerCase(Locale.ROOT);
+                for (int i = 0; i < lower.length(); i++) {
+                    if (lower.charAt(i) >= 128) {
+                        throw new IllegalArgumentException("Keyword must be ASCII: " + word);
+                    }
+                }
+                keywords.add(new Keyword(lower, group));
+            }
+            return this;
+        }
+
+        public KeywordAutomaton build() {
+            return new KeywordAutomaton(this);
+        }
+    }
+}
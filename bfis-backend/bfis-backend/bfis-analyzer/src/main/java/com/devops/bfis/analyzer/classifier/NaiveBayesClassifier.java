@@ -0,0 +1,224 @@
+package com.devops.bfis.analyzer.classifier;
+
+import com.devops.bfis.core.enums.FailureType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Online multinomial naive Bayes over hashed message tokens
+ *
+ * Learns from corrected labels (one message at a time) and complements the
+ * keyword rules where they fall through to INFRA. A rule match is treated as
+ * having confidence rule-confidence (default 1.0: rules are never
+ * overridden), the INFRA fallthrough as fallthrough-confidence; the model's
+ * prediction is used only when its confidence is higher.
+ *
+ * Raw naive Bayes posteriors saturate near 1.0 once a message has more than
+ * a few tokens, so confidence is calibrated: the log-score margins are
+ * divided by the message's token count before normalizing, i.e. the
+ * posterior of the per-token average evidence. Model layout:
+ * - tokens are hashed into 2^featureBits buckets (no vocabulary kept)
+ * - counts[type * features + bucket] and the derived
+ *   logNumerator[...] = log(count + alpha), updated in place for the touched
+ *   buckets only
+ * - per type: token total, example count and the derived log denominator
+ *
+ * Scoring walks the message once, reading the tables directly: no tokens,
+ * strings or arrays are created, so a prediction takes microseconds. Scores
+ * are read without locking; a training step running concurrently may be
+ * partially visible to a prediction. The tables (about 8 MB at the default
+ * feature-bits) are only allocated when the model is enabled.
+ */
+@Component
+public class NaiveBayesClassifier {
+    private static final FailureType[] TYPES = FailureType.values();
+    private static final double ALPHA = 1.0;
+
+    static {
+        // predict() is unrolled over the four failure types
+        if (TYPES.length != 4) {
+            throw new IllegalStateException("NaiveBayesClassifier expects 4 failure types, found " + TYPES.length);
+        }
+    }
+
+    private final boolean enabled;
+    private final int features;
+    private final int featureMask;
+    private final int minExamples;
+    private final double ruleConfidence;
+    private final double fallthroughConfidence;
+
+    private final int[] counts;
+    private final float[] logNumerator;
+    private final long[] tokenTotals = new long[TYPES.length];
+    private final long[] exampleCounts = new long[TYPES.length];
+    private final double[] logDenominator = new double[TYPES.length];
+    private volatile long totalExamples;
+
+    public NaiveBayesClassifier(
+            @Value("${bfis.classifier.bayes.enabled:false}") boolean enabled,
+            @Value("${bfis.classifier.bayes.feature-bits:18}") int featureBits,
+            @Value("${bfis.classifier.bayes.min-examples:20}") int minExamples,
+            @Value("${bfis.classifier.bayes.rule-confidence:1.0}") double ruleConfidence,
+            @Value("${bfis.classifier.bayes.fallthrough-confidence:0.6}") double fallthroughConfidence
+    ) {
+        this.enabled = enabled;
+        this.features = 1 << Math.max(8, Math.min(featureBits, 24));
+        this.featureMask = features - 1;
+        this.minExamples = minExamples;
+        this.ruleConfidence = ruleConfidence;
+        this.fallthroughConfidence = fallthroughConfidence;
+        // Disabled models never train or predict; keep them from holding the tables
+        int slots = enabled ? TYPES.length * features : 0;
+        this.counts = new int[slots];
+        this.logNumerator = new float[slots];
+        Arrays.fill(logNumerator, (float) Math.log(ALPHA));
+        for (int t = 0; t < TYPES.length; t++) {
+            logDenominator[t] = Math.log(ALPHA * features);
+        }
+    }
+
+    /**
+     * Whether predictions may be used: enabled and trained on enough examples
+     */
+    public boolean isReady() {
+        return enabled && totalExamples >= minExamples;
+    }
+
+    /**
+     * Learn from one labelled message
+     */
+    public synchronized void train(CharSequence message, FailureType label) {
+        if (!enabled || message == null || label == null) {
+            return;
+        }
+        int t = label.ordinal();
+        int base = t * features;
+        int length = message.length();
+        int i = 0;
+        long tokens = 0;
+        while (i < length) {
+            // Same tokenization as predict(): runs of ASCII letters, lowercased
+            while (i < length && !isLetter(message.charAt(i))) {
+                i++;
+            }
+            if (i >= length) {
+                break;
+            }
+            int hash = 0x811c9dc5;
+            while (i < length && isLetter(message.charAt(i))) {
+                hash = (hash ^ lower(message.charAt(i))) * 0x01000193;
+                i++;
+            }
+            int slot = base + (mix(hash) & featureMask);
+            logNumerator[slot] = (float) Math.log(++counts[slot] + ALPHA);
+            tokens++;
+        }
+        tokenTotals[t] += tokens;
+        exampleCounts[t]++;
+        logDenominator[t] = Math.log(tokenTotals[t] + ALPHA * features);
+        totalExamples++;
+    }
+
+    /**
+     * Prediction to use instead of the rule result, if the model is more confident
+     *
+     * @param ruleMatched Whether a rule matched (false = INFRA fallthrough)
+     * @return Predicted type, or null to keep the rule result
+     */
+    public FailureType override(CharSequence message, boolean ruleMatched) {
+        double threshold = ruleMatched ? ruleConfidence : fallthroughConfidence;
+        // Strictly better than the rule: nudge the threshold past equality
+        return predict(message, Math.nextUp(threshold));
+    }
+
+    /**
+     * Most probable type if its calibrated posterior reaches minConfidence
+     *
+     * @return Predicted type, or null when not ready or not confident enough
+     */
+    public FailureType predict(CharSequence message, double minConfidence) {
+        if (!isReady() || message == null) {
+            return null;
+        }
+        // Type count is fixed and small; unrolled into locals to stay allocation-free
+        double s0 = logPrior(0), s1 = logPrior(1), s2 = logPrior(2), s3 = logPrior(3);
+        int length = message.length();
+        int i = 0;
+        int tokens = 0;
+        while (i < length) {
+            while (i < length && !isLetter(message.charAt(i))) {
+                i++;
+            }
+            if (i >= length) {
+                break;
+            }
+            int hash = 0x811c9dc5;
+            while (i < length && isLetter(message.charAt(i))) {
+                hash = (hash ^ lower(message.charAt(i))) * 0x01000193;
+                i++;
+            }
+            tokens++;
+            int bucket = mix(hash) & featureMask;
+            s0 += logNumerator[bucket] - logDenominator[0];
+            s1 += logNumerator[features + bucket] - logDenominator[1];
+            s2 += logNumerator[2 * features + bucket] - logDenominator[2];
+            s3 += logNumerator[3 * features + bucket] - logDenominator[3];
+        }
+
+        int best = 0;
+        double max = s0;
+        if (s1 > max) { max = s1; best = 1; }
+        if (s2 > max) { max = s2; best = 2; }
+        if (s3 > max) { max = s3; best = 3; }
+        // Posterior of the best type over per-token margins: 1 / sum(exp((s_t - max) / tokens))
+        double scale = 1.0 / Math.max(tokens, 1);
+        double norm = Math.exp((s0 - max) * scale) + Math.exp((s1 - max) * scale)
+                + Math.exp((s2 - max) * scale) + Math.exp((s3 - max) * scale);
+        return 1.0 / norm >= minConfidence ? TYPES[best] : null;
+    }
+
+    /**
+     * Training state per type
+     */
+    public synchronized ModelStats getStats() {
+        Map<FailureType, Long> examples = new EnumMap<>(FailureType.class);
+        for (FailureType type : TYPES) {
+            examples.put(type, exampleCounts[type.ordinal()]);
+        }
+        return new ModelStats(enabled, isReady(), features, minExamples, totalExamples, examples);
+    }
+
+    private double logPrior(int t) {
+        // Laplace-smoothed class prior
+        return Math.log((exampleCounts[t] + 1.0) / (totalExamples + TYPES.length));
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static char lower(char c) {
+        return c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    public record ModelStats(
+            boolean enabled,
+            boolean ready,
+            int features,
+            int minExamples,
+            long totalExamples,
+            Map<FailureType, Long> examplesPerType
+    ) {}
+}
@@ -0,0 +1,266 @@
+package com.devops.bfis.analyzer.cluster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incremental near-duplicate clustering of normalized failure messages
+ *
+ * Fingerprints only merge messages that are identical after normalization.
+ * This index groups messages that are merely similar ("Connection refused to
+ * db-primary" / "Connection refused to db-replica") using MinHash + LSH:
+ * - messages are tokenized into word unigrams and bigrams (shingles)
+ * - a 64-value MinHash signature estimates Jaccard similarity between shingle sets
+ * - signatures are split into 16 bands of 4 rows; two messages become
+ *   candidates when any band hashes to the same bucket
+ * - a new message joins the cluster of its most similar candidate if the
+ *   estimated similarity reaches the threshold, otherwise it starts a cluster
+ *
+ * Assignment only looks at the few members sharing a bucket, never at every
+ * stored failure. Clusters never split or merge after assignment.
+ */
+@Component
+public class FailureClusterIndex {
+    private static final int NUM_HASHES = 64;
+    private static final int BANDS = 16;
+    private static final int ROWS = NUM_HASHES / BANDS;
+
+    /** Members kept per LSH bucket; older members are already represented by their cluster */
+    private static final int MAX_BUCKET_MEMBERS = 16;
+
+    private static final long[] SEEDS = new long[NUM_HASHES];
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            seed = mix64(seed + 0x9E3779B97F4A7C15L);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private final double threshold;
+
+    // Guarded by this
+    private final Map<String, Member> members = new HashMap<>();
+    private final Map<String, Set<String>> clusters = new HashMap<>();
+    private final List<Map<Long, ArrayDeque<Member>>> buckets = new ArrayList<>(BANDS);
+
+    public FailureClusterIndex(@Value("${bfis.clustering.similarity-threshold:0.6}") double threshold) {
+        this.threshold = threshold;
+        for (int b = 0; b < BANDS; b++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Assign a failure to a cluster (idempotent per fingerprint)
+     *
+     * @param fingerprint Failure fingerprint
+     * @param normalizedMessage Message as produced by FailureFingerprinter.normalize
+     * @return Cluster id: the fingerprint of the cluster's first member
+     */
+    public synchronized String assign(String fingerprint, String normalizedMessage) {
+        return assignLocked(fingerprint, normalizedMessage);
+    }
+
+    /**
+     * Assign a batch of failures under one lock acquisition
+     *
+     * @return Cluster id per fingerprint, in order
+     */
+    public synchronized List<String> assignAll(List<String> fingerprints, List<String> normalizedMessages) {
+        List<String> clusterIds = new ArrayList<>(fingerprints.size());
+        for (int i = 0; i < fingerprints.size(); i++) {
+            clusterIds.add(assignLocked(fingerprints.get(i), normalizedMessages.get(i)));
+        }
+        return clusterIds;
+    }
+
+    private String assignLocked(String fingerprint, String normalizedMessage) {
+        Member known = members.get(fingerprint);
+        if (known != null) {
+            return known.clusterId;
+        }
+
+        long[] signature = signature(normalizedMessage);
+        long[] bandKeys = new long[BANDS];
+        for (int b = 0; b < BANDS; b++) {
+            bandKeys[b] = bandKey(signature, b);
+        }
+
+        Member best = null;
+        double bestSimilarity = 0;
+        if (signature != null) {
+            Set<Member> seen = new HashSet<>();
+            for (int b = 0; b < BANDS; b++) {
+                ArrayDeque<Member> bucket = buckets.get(b).get(bandKeys[b]);
+                if (bucket == null) {
+                    continue;
+                }
+                for (Member candidate : bucket) {
+                    if (seen.add(candidate)) {
+                        double similarity = similarity(signature, candidate.signature);
+                        if (similarity > bestSimilarity) {
+                            bestSimilarity = similarity;
+                            best = candidate;
+                        }
+                    }
+                }
+            }
+        }
+
+        String clusterId = best != null && bestSimilarity >= threshold ? best.clusterId : fingerprint;
+        Member member = new Member(fingerprint, clusterId, signature);
+        members.put(fingerprint, member);
+        clusters.computeIfAbsent(clusterId, id -> new LinkedHashSet<>()).add(fingerprint);
+
+        if (signature != null) {
+            for (int b = 0; b < BANDS; b++) {
+                ArrayDeque<Member> bucket = buckets.get(b).computeIfAbsent(bandKeys[b], k -> new ArrayDeque<>());
+                if (bucket.size() >= MAX_BUCKET_MEMBERS) {
+                    bucket.pollFirst();
+                }
+                bucket.addLast(member);
+            }
+        }
+        return clusterId;
+    }
+
+    /**
+     * Cluster of a fingerprint, or null if it was never assigned
+     */
+    public synchronized String clusterOf(String fingerprint) {
+        Member member = members.get(fingerprint);
+        return member != null ? member.clusterId : null;
+    }
+
+    /**
+     * Snapshot of all clusters: cluster id -> member fingerprints (assignment order)
+     */
+    public synchronized Map<String, List<String>> getClusters() {
+        Map<String, List<String>> snapshot = new HashMap<>(clusters.size() * 2);
+        clusters.forEach((id, fingerprints) -> snapshot.put(id, List.copyOf(fingerprints)));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    public synchronized void clear() {
+        members.clear();
+        clusters.clear();
+        buckets.forEach(Map::clear);
+    }
+
+    /**
+     * MinHash signature of the message's shingle set, null when it has no tokens
+     */
+    static long[] signature(String normalizedMessage) {
+        List<Long> shingles = shingles(normalizedMessage);
+        if (shingles.isEmpty()) {
+            return null;
+        }
+        long[] signature = new long[NUM_HASHES];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < NUM_HASHES; i++) {
+                long h = mix64(shingle ^ SEEDS[i]);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Word unigrams and bigrams, hashed; tokens are runs of letters, digits and placeholders
+     */
+    private static List<Long> shingles(String text) {
+        List<Long> shingles = new ArrayList<>();
+        if (text == null) {
+            return shingles;
+        }
+        long previous = 0;
+        boolean hasPrevious = false;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !isTokenChar(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            long hash = 0xcbf29ce484222325L;
+            while (i < length && isTokenChar(text.charAt(i))) {
+                hash ^= text.charAt(i);
+                hash *= 0x100000001b3L;
+                i++;
+            }
+            if (i > start) {
+                shingles.add(hash);
+                if (hasPrevious) {
+                    shingles.add(mix64(previous * 31 + hash));
+                }
+                previous = hash;
+                hasPrevious = true;
+            }
+        }
+        return shingles;
+    }
+
+    private static boolean isTokenChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '<' || c == '>' || c == '_';
+    }
+
+    private static long bandKey(long[] signature, int band) {
+        if (signature == null) {
+            return 0L;
+        }
+        long key = band;
+        for (int r = 0; r < ROWS; r++) {
+            key = mix64(key ^ signature[band * ROWS + r]);
+        }
+        return key;
+    }
+
+    private static double similarity(long[] a, long[] b) {
+        if (a == null || b == null) {
+            return 0;
+        }
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Member {
+        final String fingerprint;
+        final String clusterId;
+        final long[] signature;
+
+        Member(String fingerprint, String clusterId, long[] signature) {
+            this.fingerprint = fingerprint;
+            this.clusterId = clusterId;
+            this.signature = signature;
+        }
+    }
+}
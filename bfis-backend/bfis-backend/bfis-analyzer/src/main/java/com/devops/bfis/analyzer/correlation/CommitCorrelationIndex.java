@@ -0,0 +1,263 @@
+package com.devops.bfis.analyzer.correlation;
+
+import com.devops.bfis.core.domain.Build;
+import com.devops.bfis.core.enums.BuildStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incremental index correlating failure fingerprints with commits
+ *
+ * Maintained on ingest, per repository:
+ * - an ordered commit timeline (position = first build seen for the commit)
+ * - the subset of commits that had a successful build
+ * - for each fingerprint, the ordered commits whose builds hit it
+ *
+ * Suspects for a fingerprint are the commits after the last green commit
+ * preceding its first sighting, up to and including that first failing commit.
+ * Locating the range is a couple of TreeMap lookups (O(log n)); at most
+ * MAX_SUSPECTS commits of it are walked, nearest to the first failure first,
+ * so a fingerprint without an earlier green commit does not copy the whole
+ * history. Out-of-order ingest (backfills) is fine:
+ * a commit is repositioned if an earlier build for it arrives later.
+ */
+@Component
+public class CommitCorrelationIndex {
+
+    /** Upper bound on suspect commits returned per query */
+    private static final int MAX_SUSPECTS = 50;
+
+    /** Upper bound on later commits returned per query */
+    private static final int MAX_LATER_COMMITS = 20;
+
+    private static final Comparator<TimelineKey> KEY_ORDER =
+            Comparator.comparingLong(TimelineKey::epochMillis).thenComparing(TimelineKey::commitHash);
+
+    private final Map<String, RepoTimeline> timelines = new ConcurrentHashMap<>();
+
+    /**
+     * Place a build's commit on its repository timeline
+     */
+    public void recordBuild(Build build) {
+        if (!isIndexable(build)) {
+            return;
+        }
+        timelineFor(build.getRepositoryName()).recordBuild(build);
+    }
+
+    /**
+     * Record that a build hit the given failure fingerprint
+     */
+    public void recordFailure(String fingerprint, Build build) {
+        if (fingerprint == null || !isIndexable(build)) {
+            return;
+        }
+        RepoTimeline timeline = timelineFor(build.getRepositoryName());
+        timeline.recordBuild(build);
+        timeline.recordFailure(fingerprint, build);
+    }
+
+    /**
+     * Record a batch of builds and the fingerprints they hit
+     *
+     * Same as recordBuild / recordFailure per build, in order, taking each
+     * repository timeline's lock once.
+     *
+     * @param fingerprints Fingerprint hit per build; null for builds without a failure
+     */
+    public void recordAll(List<Build> builds, List<String> fingerprints) {
+        Map<String, List<Integer>> indexesByRepo = new HashMap<>();
+        for (int i = 0; i < builds.size(); i++) {
+            if (isIndexable(builds.get(i))) {
+                indexesByRepo.computeIfAbsent(builds.get(i).getRepositoryName(), r -> new ArrayList<>()).add(i);
+            }
+        }
+        indexesByRepo.forEach((repo, indexes) -> timelineFor(repo).recordAll(builds, fingerprints, indexes));
+    }
+
+    /**
+     * Suspect commits for a fingerprint in one repository
+     *
+     * @return null when the fingerprint was never seen in that repository
+     */
+    public SuspectCommits findSuspects(String repositoryName, String fingerprint) {
+        RepoTimeline timeline = timelines.get(repositoryName);
+        return timeline != null ? timeline.findSuspects(fingerprint) : null;
+    }
+
+    /**
+     * Repositories in which a fingerprint was seen, earliest first sighting first
+     */
+    public List<String> repositoriesFor(String fingerprint) {
+        List<Map.Entry<String, CommitRef>> firstSightings = new ArrayList<>();
+        timelines.forEach((repo, timeline) -> {
+            CommitRef first = timeline.firstSighting(fingerprint);
+            if (first != null) {
+                firstSightings.add(Map.entry(repo, first));
+            }
+        });
+        firstSightings.sort(Comparator.comparing(e -> e.getValue().seenAt()));
+        return firstSightings.stream().map(Map.Entry::getKey).toList();
+    }
+
+    public void clear() {
+        timelines.clear();
+    }
+
+    private RepoTimeline timelineFor(String repositoryName) {
+        return timelines.computeIfAbsent(repositoryName, RepoTimeline::new);
+    }
+
+    private static boolean isIndexable(Build build) {
+        return build != null && build.getRepositoryName() != null
+                && build.getCommitHash() != null && build.getTriggeredAt() != null;
+    }
+
+    /**
+     * Ordering key on a repository timeline
+     */
+    private record TimelineKey(long epochMillis, String commitHash) {}
+
+    private static final class RepoTimeline {
+        final String repositoryName;
+        final NavigableMap<TimelineKey, CommitRef> commits = new TreeMap<>(KEY_ORDER);
+        final NavigableMap<TimelineKey, CommitRef> greenCommits = new TreeMap<>(KEY_ORDER);
+        final Map<String, TimelineKey> keyByCommit = new HashMap<>();
+        final Map<String, NavigableMap<TimelineKey, CommitRef>> fingerprintCommits = new HashMap<>();
+
+        RepoTimeline(String repositoryName) {
+            this.repositoryName = repositoryName;
+        }
+
+        synchronized void recordBuild(Build build) {
+            String commit = build.getCommitHash();
+            TimelineKey key = new TimelineKey(build.getTriggeredAt().toEpochMilli(), commit);
+            TimelineKey existing = keyByCommit.get(commit);
+
+            if (existing == null || KEY_ORDER.compare(key, existing) < 0) {
+                CommitRef ref = new CommitRef(commit, build.getId(), build.getTriggeredAt());
+                if (existing != null) {
+                    reposition(existing, key, ref);
+                } else {
+                    commits.put(key, ref);
+                }
+                keyByCommit.put(commit, key);
+            }
+            if (build.getStatus() == BuildStatus.SUCCESS) {
+                TimelineKey position = keyByCommit.get(commit);
+                greenCommits.putIfAbsent(position, commits.get(position));
+            }
+        }
+
+        synchronized void recordAll(List<Build> builds, List<String> fingerprints, List<Integer> indexes) {
+            for (int i : indexes) {
+                Build build = builds.get(i);
+                recordBuild(build);
+                if (fingerprints.get(i) != null) {
+                    recordFailure(fingerprints.get(i), build);
+                }
+            }
+        }
+
+        synchronized void recordFailure(String fingerprint, Build build) {
+            TimelineKey position = keyByCommit.get(build.getCommitHash());
+            fingerprintCommits.computeIfAbsent(fingerprint, f -> new TreeMap<>(KEY_ORDER))
+                    .putIfAbsent(position, commits.get(position));
+        }
+
+        synchronized CommitRef firstSighting(String fingerprint) {
+            NavigableMap<TimelineKey, CommitRef> seen = fingerprintCommits.get(fingerprint);
+            return seen == null || seen.isEmpty() ? null : seen.firstEntry().getValue();
+        }
+
+        synchronized SuspectCommits findSuspects(String fingerprint) {
+            NavigableMap<TimelineKey, CommitRef> seen = fingerprintCommits.get(fingerprint);
+            if (seen == null || seen.isEmpty()) {
+                return null;
+            }
+            Map.Entry<TimelineKey, CommitRef> first = seen.firstEntry();
+            Map.Entry<TimelineKey, CommitRef> lastGreen = greenCommits.lowerEntry(first.getKey());
+
+            NavigableMap<TimelineKey, CommitRef> range = lastGreen != null
+                    ? commits.subMap(lastGreen.getKey(), false, first.getKey(), true)
+                    : commits.headMap(first.getKey(), true);
+            // Sub-map size() walks the range, so stop at the cap instead
+            List<CommitRef> suspects = new ArrayList<>();
+            Iterator<CommitRef> nearestFirst = range.descendingMap().values().iterator();
+            while (nearestFirst.hasNext() && suspects.size() < MAX_SUSPECTS) {
+                suspects.add(nearestFirst.next());
+            }
+            boolean suspectsTruncated = nearestFirst.hasNext();
+            Collections.reverse(suspects);
+
+            List<CommitRef> later = new ArrayList<>(Math.min(seen.size() - 1, MAX_LATER_COMMITS));
+            for (CommitRef ref : seen.descendingMap().headMap(first.getKey(), false).values()) {
+                if (later.size() >= MAX_LATER_COMMITS) {
+                    break;
+                }
+                later.add(ref);
+            }
+
+            return new SuspectCommits(
+                    repositoryName,
+                    fingerprint,
+                    first.getValue(),
+                    lastGreen != null ? lastGreen.getValue() : null,
+                    suspects,
+                    suspectsTruncated,
+                    later,
+                    seen.size()
+            );
+        }
+
+        private void reposition(TimelineKey from, TimelineKey to, CommitRef ref) {
+            commits.remove(from);
+            commits.put(to, ref);
+            if (greenCommits.remove(from) != null) {
+                greenCommits.put(to, ref);
+            }
+            for (NavigableMap<TimelineKey, CommitRef> seen : fingerprintCommits.values()) {
+                if (seen.remove(from) != null) {
+                    seen.put(to, ref);
+                }
+            }
+        }
+    }
+
+    /**
+     * A commit as first observed on the timeline
+     */
+    public record CommitRef(String commitHash, String buildId, Instant seenAt) {}
+
+    /**
+     * Answer to "which commit introduced this failure"
+     *
+     * @param introducedBy First commit whose build hit the fingerprint
+     * @param lastGoodCommit Last commit with a green build before that, null if none
+     * @param suspects Commits in (lastGoodCommit, introducedBy], oldest first; the latest MAX_SUSPECTS only
+     * @param suspectsTruncated Whether older suspects were left out
+     * @param laterCommits Most recent later commits still showing it, newest first (bounded)
+     * @param affectedCommits Number of commits whose builds hit the fingerprint
+     */
+    public record SuspectCommits(
+            String repositoryName,
+            String fingerprint,
+            CommitRef introducedBy,
+            CommitRef lastGoodCommit,
+            List<CommitRef> suspects,
+            boolean suspectsTruncated,
+            List<CommitRef> laterCommits,
+            int affectedCommits
+    ) {}
+}
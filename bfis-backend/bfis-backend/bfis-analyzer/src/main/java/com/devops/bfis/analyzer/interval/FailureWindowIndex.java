@@ -0,0 +1,184 @@
+package com.devops.bfis.analyzer.interval;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Interval index over failure activity windows [firstSeenAt, lastSeenAt]
+ *
+ * A treap (randomized balanced BST) ordered by window start, where every node
+ * also stores the maximum window end in its subtree. Overlap queries skip any
+ * subtree whose max end is before the query window, and everything right of
+ * the first start after it, so only the k reported windows and their
+ * ancestors are visited: O(k log n) in the worst case (reported windows
+ * spread over separate subtrees), closer to O(log n + k) when they cluster.
+ *
+ * Windows of a failure only widen over time; an update is a remove plus an
+ * insert, both O(log n) expected. Not thread-safe; the owning store
+ * serializes access.
+ */
+public final class FailureWindowIndex {
+
+    private final Map<String, Node> nodesByKey = new HashMap<>();
+    private Node root;
+
+    /**
+     * Insert or move the window of a failure
+     *
+     * @param key Failure fingerprint
+     */
+    public void put(String key, Instant start, Instant end) {
+        Node existing = nodesByKey.get(key);
+        long startMillis = start.toEpochMilli();
+        long endMillis = Math.max(end.toEpochMilli(), startMillis);
+        if (existing != null) {
+            if (existing.start == startMillis && existing.end == endMillis) {
+                return;
+            }
+            root = remove(root, existing.start, key);
+        }
+        Node node = new Node(key, startMillis, endMillis, ThreadLocalRandom.current().nextInt());
+        root = insert(root, node);
+        nodesByKey.put(key, node);
+    }
+
+    public void remove(String key) {
+        Node existing = nodesByKey.remove(key);
+        if (existing != null) {
+            root = remove(root, existing.start, key);
+        }
+    }
+
+    /**
+     * Keys of all windows overlapping [from, to] (inclusive), ordered by window start
+     */
+    public List<String> findOverlapping(Instant from, Instant to) {
+        List<String> result = new ArrayList<>();
+        collect(root, from.toEpochMilli(), to.toEpochMilli(), result);
+        return result;
+    }
+
+    public int size() {
+        return nodesByKey.size();
+    }
+
+    public void clear() {
+        nodesByKey.clear();
+        root = null;
+    }
+
+    private static void collect(Node node, long from, long to, List<String> out) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        collect(node.left, from, to, out);
+        if (node.start > to) {
+            // Everything to the right starts even later
+            return;
+        }
+        if (node.end >= from) {
+            out.add(node.key);
+        }
+        collect(node.right, from, to, out);
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(inserted.start, inserted.key, node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node remove(Node node, long start, String key) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, key, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, key);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, key);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static int compare(long start, String key, Node node) {
+        int cmp = Long.compare(start, node.start);
+        return cmp != 0 ? cmp : key.compareTo(node.key);
+    }
+
+    private static final class Node {
+        final String key;
+        final long start;
+        final long end;
+        final int priority;
+        long maxEnd;
+        Node left;
+        Node right;
+
+        Node(String key, long start, long end, int priority) {
+            this.key = key;
+            this.start = start;
+            this.end = end;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        void update() {
+            long max = end;
+            if (left != null && left.maxEnd > max) max = left.maxEnd;
+            if (right != null && right.maxEnd > max) max = right.maxEnd;
+            maxEnd = max;
+        }
+    }
+}
@@ -12,11 +12,12 @@ import java.util.Optional;
  * Current: In-memory
  * Future: Database with indexing on failureType and frequencyCount
  */
-public interface FailureRepository {
+public interface FailureRepository extends ReclassifiableFailureStore {
     
     /**
      * Retrieve all failures, ordered by frequency (highest first)
      */
+    @Override
     List<Failure> findAll();
     
     /**
@@ -44,6 +45,17 @@ public interface FailureRepository {
      */
     Failure save(Failure failure);
     
+    /**
+     * Atomically replace failures that have not changed since they were read
+     * 
+     * An update applies only if its expected failure is still the stored
+     * instance; readers observe either none or all of the applied updates.
+     * 
+     * @return Number of updates applied
+     */
+    @Override
+    int applyUpdates(List<FailureUpdate> updates);
+    
     /**
      * Count total failures
      */
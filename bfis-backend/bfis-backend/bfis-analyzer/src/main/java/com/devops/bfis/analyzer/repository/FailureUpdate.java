@@ -0,0 +1,11 @@
+package com.devops.bfis.analyzer.repository;
+
+import com.devops.bfis.core.domain.Failure;
+
+/**
+ * Replacement for a stored failure, valid only while expected is still stored
+ *
+ * @param expected Instance read from the repository (compared by identity)
+ * @param updated New instance with the same id
+ */
+public record FailureUpdate(Failure expected, Failure updated) {}
@@ -0,0 +1,11 @@
+package com.devops.bfis.analyzer.repository;
+
+/**
+ * Published by the failure repository after a failure was saved
+ *
+ * Listeners should treat it as a hint to refresh derived data, not as a
+ * per-change notification: bulk loads publish one event per saved failure.
+ *
+ * @param failureId Saved failure, null after a bulk update
+ */
+public record FailuresChangedEvent(String failureId) {}
@@ -2,6 +2,8 @@ package com.devops.bfis.analyzer.repository;
 
 import com.devops.bfis.core.domain.Failure;
 import com.devops.bfis.core.enums.FailureType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
@@ -13,11 +15,17 @@ import java.util.stream.Collectors;
  * 
  * Thread-safe storage for failure analysis data
  * Production would use indexed database queries
+ * Publishes FailuresChangedEvent on every save
+ * 
+ * Bulk updates build a new map and swap it in, so readers never block
+ * and never see a half-applied batch.
  */
 @Repository
+@RequiredArgsConstructor
 public class InMemoryFailureRepository implements FailureRepository {
     
-    private final Map<String, Failure> failureStore = new ConcurrentHashMap<>();
+    private volatile Map<String, Failure> failureStore = new ConcurrentHashMap<>();
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
     public List<Failure> findAll() {
@@ -55,14 +63,34 @@ public class InMemoryFailureRepository implements FailureRepository {
     }
     
     @Override
-    public Failure save(Failure failure) {
+    public synchronized Failure save(Failure failure) {
         if (failure.getId() == null) {
             failure.setId(UUID.randomUUID().toString());
         }
         failureStore.put(failure.getId(), failure);
+        eventPublisher.publishEvent(new FailuresChangedEvent(failure.getId()));
         return failure;
     }
     
+    @Override
+    public synchronized int applyUpdates(List<FailureUpdate> updates) {
+        Map<String, Failure> next = new ConcurrentHashMap<>(failureStore);
+        int applied = 0;
+        for (FailureUpdate update : updates) {
+            String id = update.expected().getId();
+            // Skip failures saved again since they were read
+            if (next.get(id) == update.expected()) {
+                next.put(id, update.updated());
+                applied++;
+            }
+        }
+        if (applied > 0) {
+            failureStore = next;
+            eventPublisher.publishEvent(new FailuresChangedEvent(null));
+        }
+        return applied;
+    }
+    
     @Override
     public long count() {
         return failureStore.size();
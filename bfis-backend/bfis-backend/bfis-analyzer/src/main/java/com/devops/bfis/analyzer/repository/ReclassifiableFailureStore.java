@@ -0,0 +1,25 @@
+package com.devops.bfis.analyzer.repository;
+
+import com.devops.bfis.core.domain.Failure;
+
+import java.util.List;
+
+/**
+ * A store of failures that FailureReclassificationService re-types after rule changes
+ *
+ * Implemented by the FailureRepository and by the API's live failure store.
+ */
+public interface ReclassifiableFailureStore {
+
+    /**
+     * Snapshot of every stored failure
+     */
+    List<Failure> findAll();
+
+    /**
+     * Replace failures that have not been replaced since they were read
+     *
+     * @return Number of updates applied
+     */
+    int applyUpdates(List<FailureUpdate> updates);
+}
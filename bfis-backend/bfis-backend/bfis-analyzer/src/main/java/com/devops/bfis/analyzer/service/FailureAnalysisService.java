@@ -1,5 +1,6 @@
 package com.devops.bfis.analyzer.service;
 
+import com.devops.bfis.analyzer.classifier.FailureClassifier;
 import com.devops.bfis.analyzer.repository.FailureRepository;
 import com.devops.bfis.core.domain.Failure;
 import com.devops.bfis.core.enums.FailureType;
@@ -7,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -28,6 +30,7 @@ import java.util.stream.Collectors;
 public class FailureAnalysisService {
     
     private final FailureRepository failureRepository;
+    private final FailureClassifier failureClassifier;
     
     /**
      * Get all failures ordered by frequency
@@ -77,42 +80,15 @@ public class FailureAnalysisService {
      * @return Detected failure type
      */
     public FailureType categorizeFailure(String errorMessage) {
-        String lowerMessage = errorMessage.toLowerCase();
-        
-        // Test-related failures
-        if (lowerMessage.contains("test") || 
-            lowerMessage.contains("assertion") ||
-            lowerMessage.contains("expected") ||
-            lowerMessage.contains("junit") ||
-            lowerMessage.contains("mockito")) {
-            return FailureType.TEST;
-        }
-        
-        // Dependency failures
-        if (lowerMessage.contains("dependency") ||
-            lowerMessage.contains("package not found") ||
-            lowerMessage.contains("maven") ||
-            lowerMessage.contains("npm") ||
-            lowerMessage.contains("module not found")) {
-            return FailureType.DEPENDENCY;
-        }
-        
-        // Docker/container failures
-        if (lowerMessage.contains("docker") ||
-            lowerMessage.contains("container") ||
-            lowerMessage.contains("image") ||
-            lowerMessage.contains("dockerfile")) {
-            return FailureType.DOCKER;
-        }
-        
-        // Infrastructure failures (default)
-        return FailureType.INFRA;
+        // Single pass over the message; keyword sets live in FailureClassifier
+        return failureClassifier.classifyMessage(errorMessage);
     }
     
     /**
      * Generate human-readable insights about failure patterns
      * 
-     * Used by the UI generation endpoint to provide recommendations
+     * Used by the UI generation endpoint to provide recommendations;
+     * FailureInsightsService keeps the latest result precomputed
      */
     public String generateFailureInsights() {
         List<Failure> allFailures = failureRepository.findAll();
@@ -121,10 +97,12 @@ public class FailureAnalysisService {
             return "No failures detected. System is healthy.";
         }
         
-        Map<FailureType, Long> distribution = getFailureDistribution();
-        Failure topFailure = allFailures.stream()
-                .max((f1, f2) -> f1.getFrequencyCount().compareTo(f2.getFrequencyCount()))
-                .orElse(null);
+        // findAll() is ordered by frequency, so the distribution is the only extra pass
+        Map<FailureType, Long> distribution = new EnumMap<>(FailureType.class);
+        for (Failure failure : allFailures) {
+            distribution.merge(failure.getFailureType(), 1L, Long::sum);
+        }
+        Failure topFailure = allFailures.get(0);
         
         StringBuilder insights = new StringBuilder();
         insights.append(String.format("Analyzed %d unique failure patterns.\n", allFailures.size()));
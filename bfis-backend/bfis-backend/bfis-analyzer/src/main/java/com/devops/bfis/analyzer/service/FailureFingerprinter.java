@@ -0,0 +1,221 @@
+package com.devops.bfis.analyzer.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Normalizes error messages into stable fingerprints
+ *
+ * Two occurrences of the same problem rarely produce byte-identical messages:
+ * line numbers, commit hashes, run ids, temp paths and timestamps all change
+ * from build to build. The normalizer replaces those volatile fragments with
+ * placeholders so the same underlying problem maps to the same fingerprint:
+ * - UUIDs              -> "<uuid>"
+ * - timestamps / times -> "<ts>"
+ * - file paths / URLs  -> "<path>"
+ * - hex hashes (7+)    -> "<hash>"
+ * - remaining digits   -> "<n>"
+ *
+ * Normalization is a single pass over the message; no regex engine is involved.
+ */
+@Component
+public class FailureFingerprinter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Normalize an error message
+     *
+     * Example:
+     * "NullPointerException in UserService.validateEmail() at line 142"
+     * -> "nullpointerexception in userservice.validateemail() at line <n>"
+     */
+    public String normalize(String message) {
+        if (message == null || message.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder out = new StringBuilder(message.length());
+        int length = message.length();
+        int i = 0;
+        while (i < length) {
+            char c = message.charAt(i);
+            if (Character.isWhitespace(c)) {
+                // Collapse whitespace runs into a single space
+                if (out.length() > 0 && out.charAt(out.length() - 1) != ' ') {
+                    out.append(' ');
+                }
+                i++;
+                continue;
+            }
+            if (isDelimiter(c)) {
+                out.append(c);
+                i++;
+                continue;
+            }
+
+            int end = i;
+            while (end < length && !Character.isWhitespace(message.charAt(end)) && !isDelimiter(message.charAt(end))) {
+                end++;
+            }
+            appendToken(message, i, end, out);
+            i = end;
+        }
+
+        int last = out.length() - 1;
+        if (last >= 0 && out.charAt(last) == ' ') {
+            out.setLength(last);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Fingerprint of an error message: 64-bit hash of the normalized form, hex encoded
+     */
+    public String fingerprint(String message) {
+        return toHex(hash64(normalize(message)));
+    }
+
+    /**
+     * FNV-1a 64-bit hash of a message (normalized for fingerprints, raw for the classification cache)
+     */
+    public long hash64(CharSequence normalized) {
+        return hash64(FNV_OFFSET_BASIS, normalized);
+    }
+
+    /**
+     * FNV-1a 64-bit hash of a normalized message scoped to a repository
+     *
+     * The same message in two repositories hashes differently, so each
+     * repository keeps its own failure patterns.
+     */
+    public long hash64(String repositoryName, CharSequence normalized) {
+        long hash = hash64(FNV_OFFSET_BASIS, repositoryName != null ? repositoryName : "");
+        // Separator no repository name contains
+        hash = hash64(hash, "\0");
+        return hash64(hash, normalized);
+    }
+
+    private static long hash64(long hash, CharSequence chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            hash ^= (c & 0xff);
+            hash *= FNV_PRIME;
+            hash ^= (c >>> 8);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Zero-padded 16 character hex rendering of a 64-bit hash
+     */
+    public static String toHex(long hash) {
+        String hex = Long.toHexString(hash);
+        return hex.length() == 16 ? hex : "0".repeat(16 - hex.length()) + hex;
+    }
+
+    private void appendToken(String s, int start, int end, StringBuilder out) {
+        if (isUuid(s, start, end)) {
+            out.append("<uuid>");
+        } else if (isPath(s, start, end)) {
+            out.append("<path>");
+        } else if (isTimestamp(s, start, end)) {
+            out.append("<ts>");
+        } else if (isHexHash(s, start, end)) {
+            out.append("<hash>");
+        } else {
+            boolean inNumber = false;
+            for (int i = start; i < end; i++) {
+                char c = s.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    if (!inNumber) {
+                        out.append("<n>");
+                        inNumber = true;
+                    }
+                } else {
+                    out.append(Character.toLowerCase(c));
+                    inNumber = false;
+                }
+            }
+        }
+    }
+
+    private static boolean isDelimiter(char c) {
+        return switch (c) {
+            case '(', ')', '[', ']', '{', '}', '<', '>', '\'', '"', '`', ',', ';', '=' -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isUuid(String s, int start, int end) {
+        if (end - start != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = s.charAt(start + i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') return false;
+            } else if (!isHex(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPath(String s, int start, int end) {
+        if (end - start < 2) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '/' || c == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Dates and clock times: only digits and date/time separators,
+     * e.g. 2024-01-15T10:30:00.000Z, 2024-01-15, 10:30:00
+     */
+    private static boolean isTimestamp(String s, int start, int end) {
+        int digits = 0;
+        boolean separator = false;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '-' || c == ':') {
+                separator = true;
+            } else if (c != '.' && c != 'T' && c != 'Z' && c != '+') {
+                return false;
+            }
+        }
+        return separator && digits >= 4;
+    }
+
+    private static boolean isHexHash(String s, int start, int end) {
+        if (end - start < 7) {
+            return false;
+        }
+        boolean digit = false;
+        boolean letter = false;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (isHex(c)) {
+                letter = true;
+            } else {
+                return false;
+            }
+        }
+        return digit && letter;
+    }
+
+    private static boolean isHex(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+}
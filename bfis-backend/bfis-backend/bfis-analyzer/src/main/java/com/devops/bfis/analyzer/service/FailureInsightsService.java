@@ -0,0 +1,114 @@
+package com.devops.bfis.analyzer.service;
+
+import com.devops.bfis.analyzer.repository.FailuresChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the failure insights precomputed for the UI generation endpoint
+ *
+ * Insights are rebuilt in the background after the failure store changes,
+ * debounced on the trailing edge: a burst of saves (seeding, backfills)
+ * triggers a single rebuild once the store has been quiet for debounce-ms.
+ * A continuous stream of changes still gets a rebuild every max-wait-ms.
+ * Readers always get the latest finished result without waiting on the
+ * analysis.
+ */
+@Service
+@Slf4j
+public class FailureInsightsService {
+
+    private final FailureAnalysisService failureAnalysisService;
+    private final long debounceNanos;
+    private final long maxWaitNanos;
+    private final AtomicReference<FailureInsights> latest = new AtomicReference<>();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final AtomicLong lastChangeNanos = new AtomicLong();
+    // First change not yet covered by a rebuild; only touched by the scheduling thread and the refresh task
+    private volatile long pendingSinceNanos;
+    private final ScheduledExecutorService executor;
+
+    public FailureInsightsService(
+            FailureAnalysisService failureAnalysisService,
+            @Value("${bfis.insights.debounce-ms:500}") long debounceMs,
+            @Value("${bfis.insights.max-wait-ms:5000}") long maxWaitMs
+    ) {
+        this.failureAnalysisService = failureAnalysisService;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMs);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxWaitMs, debounceMs));
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "bfis-insights-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Latest prebuilt insights; computed inline only if nothing has been built yet
+     */
+    public FailureInsights getLatest() {
+        FailureInsights insights = latest.get();
+        if (insights == null) {
+            insights = rebuild();
+        }
+        return insights;
+    }
+
+    @EventListener
+    public void onFailuresChanged(FailuresChangedEvent event) {
+        long now = System.nanoTime();
+        lastChangeNanos.set(now);
+        // One pending check at a time; it moves itself back while changes keep coming
+        if (refreshScheduled.compareAndSet(false, true)) {
+            pendingSinceNanos = now;
+            executor.schedule(this::refresh, debounceNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void refresh() {
+        long now = System.nanoTime();
+        long quietFor = now - lastChangeNanos.get();
+        long waitedFor = now - pendingSinceNanos;
+        if (quietFor < debounceNanos && waitedFor < maxWaitNanos) {
+            long delay = Math.min(debounceNanos - quietFor, maxWaitNanos - waitedFor);
+            executor.schedule(this::refresh, delay, TimeUnit.NANOSECONDS);
+            return;
+        }
+        // Cleared before rebuilding so changes made during the rebuild schedule another one
+        refreshScheduled.set(false);
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Failed to refresh failure insights", e);
+        }
+    }
+
+    private FailureInsights rebuild() {
+        long start = System.nanoTime();
+        FailureInsights insights = new FailureInsights(failureAnalysisService.generateFailureInsights(), Instant.now());
+        latest.set(insights);
+        log.debug("Rebuilt failure insights in {} us", (System.nanoTime() - start) / 1_000);
+        return insights;
+    }
+
+    /**
+     * Prebuilt insights text and when it was computed
+     */
+    public record FailureInsights(String text, Instant computedAt) {}
+}
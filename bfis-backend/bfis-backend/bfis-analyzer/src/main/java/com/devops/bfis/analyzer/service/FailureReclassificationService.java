@@ -0,0 +1,276 @@
+package com.devops.bfis.analyzer.service;
+
+import com.devops.bfis.analyzer.classifier.FailureClassifier;
+import com.devops.bfis.analyzer.classifier.FailureRuleEngine;
+import com.devops.bfis.analyzer.repository.FailureUpdate;
+import com.devops.bfis.analyzer.repository.ReclassifiableFailureStore;
+import com.devops.bfis.core.domain.Failure;
+import com.devops.bfis.core.enums.FailureType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background re-classification of stored failures after rule changes
+ *
+ * Covers every ReclassifiableFailureStore: the FailureRepository and the
+ * live failures ingested through the API (InMemoryDataStore). A job reads a
+ * snapshot of each store and classifies it in parallel chunks. New type
+ * assignments and the resulting distribution are built off to the side;
+ * nothing is written until every store is classified, then each store's
+ * changes are published with its applyUpdates. Failures replaced while the
+ * job ran are left as they are. Failures whose type was given by the
+ * reporter (Failure.typeReported) keep it and only count towards the
+ * distribution.
+ *
+ * A job starts automatically whenever the rule engine loads new rules; the
+ * classification cache is cleared first (it registers its listener earlier,
+ * being a dependency of this service). Starting a job cancels a running one.
+ */
+@Service
+@Slf4j
+public class FailureReclassificationService {
+
+    private final List<ReclassifiableFailureStore> stores;
+    private final FailureClassifier failureClassifier;
+    private final int chunkSize;
+    private final ExecutorService workers;
+    private final ExecutorService coordinator;
+
+    private volatile Job currentJob;
+
+    public FailureReclassificationService(
+            List<ReclassifiableFailureStore> stores,
+            FailureClassifier failureClassifier,
+            FailureRuleEngine ruleEngine,
+            @Value("${bfis.reclassification.parallelism:0}") int parallelism,
+            @Value("${bfis.reclassification.chunk-size:500}") int chunkSize
+    ) {
+        this.stores = List.copyOf(stores);
+        this.failureClassifier = failureClassifier;
+        this.chunkSize = Math.max(chunkSize, 1);
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger workerIds = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "bfis-reclassify-" + workerIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.coordinator = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "bfis-reclassify-coordinator");
+            t.setDaemon(true);
+            return t;
+        });
+        ruleEngine.addReloadListener(() -> start("rules reloaded"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Start a re-classification job, cancelling the running one if any
+     *
+     * @param reason Shown in the job status
+     */
+    public synchronized JobStatus start(String reason) {
+        Job running = currentJob;
+        if (running != null && !running.isFinished()) {
+            running.cancelled = true;
+        }
+        Job job = new Job(reason);
+        currentJob = job;
+        coordinator.execute(() -> run(job));
+        return job.status();
+    }
+
+    /**
+     * Cancel the running job; results of a cancelled job are discarded
+     *
+     * @return Status of the cancelled job, or null when no job is running
+     */
+    public synchronized JobStatus cancel() {
+        Job job = currentJob;
+        if (job == null || job.isFinished()) {
+            return null;
+        }
+        job.cancelled = true;
+        return job.status();
+    }
+
+    /**
+     * Progress of the current (or last) job, null if none has run
+     */
+    public JobStatus getStatus() {
+        Job job = currentJob;
+        return job != null ? job.status() : null;
+    }
+
+    private void run(Job job) {
+        if (job.cancelled) {
+            job.finish(JobState.CANCELLED, null);
+            return;
+        }
+        job.state = JobState.RUNNING;
+        try {
+            List<List<Failure>> snapshots = new ArrayList<>(stores.size());
+            int total = 0;
+            for (ReclassifiableFailureStore store : stores) {
+                List<Failure> snapshot = store.findAll();
+                snapshots.add(snapshot);
+                total += snapshot.size();
+            }
+            job.total = total;
+
+            // Chunks of all stores run together; results stay per store
+            List<List<CompletableFuture<ChunkResult>>> chunksByStore = new ArrayList<>(stores.size());
+            for (List<Failure> snapshot : snapshots) {
+                List<CompletableFuture<ChunkResult>> chunks = new ArrayList<>();
+                for (int from = 0; from < snapshot.size(); from += chunkSize) {
+                    List<Failure> chunk = snapshot.subList(from, Math.min(from + chunkSize, snapshot.size()));
+                    chunks.add(CompletableFuture.supplyAsync(() -> classifyChunk(chunk, job), workers));
+                }
+                chunksByStore.add(chunks);
+            }
+
+            List<List<FailureUpdate>> updatesByStore = new ArrayList<>(stores.size());
+            Map<FailureType, Long> distribution = new EnumMap<>(FailureType.class);
+            int changed = 0;
+            for (List<CompletableFuture<ChunkResult>> chunks : chunksByStore) {
+                List<FailureUpdate> updates = new ArrayList<>();
+                for (CompletableFuture<ChunkResult> chunk : chunks) {
+                    ChunkResult result = chunk.join();
+                    updates.addAll(result.updates());
+                    result.distribution().forEach((type, count) -> distribution.merge(type, count, Long::sum));
+                }
+                updatesByStore.add(updates);
+                changed += updates.size();
+            }
+
+            if (job.cancelled) {
+                job.finish(JobState.CANCELLED, null);
+                log.info("Failure re-classification cancelled after {}/{} failures", job.processed.get(), job.total);
+                return;
+            }
+            int applied = 0;
+            for (int i = 0; i < stores.size(); i++) {
+                if (!updatesByStore.get(i).isEmpty()) {
+                    applied += stores.get(i).applyUpdates(updatesByStore.get(i));
+                }
+            }
+            job.applied = applied;
+            job.finish(JobState.COMPLETED, distribution);
+            log.info("Failure re-classification finished: {} failures, {} changed, {} applied",
+                    job.total, changed, job.applied);
+        } catch (Exception e) {
+            if (job.cancelled) {
+                // Chunks abort with CancellationException once the job is cancelled
+                job.finish(JobState.CANCELLED, null);
+                return;
+            }
+            job.error = e.getMessage();
+            job.finish(JobState.FAILED, null);
+            log.warn("Failure re-classification failed", e);
+        }
+    }
+
+    private ChunkResult classifyChunk(List<Failure> chunk, Job job) {
+        List<FailureUpdate> updates = new ArrayList<>();
+        Map<FailureType, Long> distribution = new EnumMap<>(FailureType.class);
+        for (Failure failure : chunk) {
+            if (job.cancelled) {
+                throw new CancellationException();
+            }
+            // Types given by the reporter are kept, only classified ones are redone
+            FailureType type = failure.getErrorMessage() != null && !failure.isTypeReported()
+                    ? failureClassifier.classifyMessage(failure.getErrorMessage())
+                    : failure.getFailureType();
+            if (type != null) {
+                distribution.merge(type, 1L, Long::sum);
+            }
+            if (type != failure.getFailureType()) {
+                updates.add(new FailureUpdate(failure, failure.toBuilder().failureType(type).build()));
+                job.changed.incrementAndGet();
+            }
+            job.processed.incrementAndGet();
+        }
+        return new ChunkResult(updates, distribution);
+    }
+
+    private record ChunkResult(List<FailureUpdate> updates, Map<FailureType, Long> distribution) {}
+
+    public enum JobState {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+
+    private static final class Job {
+        final String reason;
+        final Instant startedAt = Instant.now();
+        final AtomicInteger processed = new AtomicInteger();
+        final AtomicInteger changed = new AtomicInteger();
+        volatile JobState state = JobState.PENDING;
+        volatile boolean cancelled;
+        volatile int total;
+        volatile int applied;
+        volatile String error;
+        volatile Instant finishedAt;
+        volatile Map<FailureType, Long> distribution;
+
+        Job(String reason) {
+            this.reason = reason;
+        }
+
+        boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        void finish(JobState finalState, Map<FailureType, Long> finalDistribution) {
+            distribution = finalDistribution;
+            state = finalState;
+            finishedAt = Instant.now();
+        }
+
+        JobStatus status() {
+            return new JobStatus(state, reason, startedAt, finishedAt, total, processed.get(), changed.get(),
+                    applied, distribution, error);
+        }
+    }
+
+    /**
+     * Progress snapshot of a re-classification job
+     *
+     * @param changed Failures whose type changed under the new rules
+     * @param applied Changes published (failures saved meanwhile are skipped)
+     * @param distribution Failure count per type after re-classification (completed jobs only)
+     */
+    public record JobStatus(
+            JobState state,
+            String reason,
+            Instant startedAt,
+            Instant finishedAt,
+            int total,
+            int processed,
+            int changed,
+            int applied,
+            Map<FailureType, Long> distribution,
+            String error
+    ) {}
+}
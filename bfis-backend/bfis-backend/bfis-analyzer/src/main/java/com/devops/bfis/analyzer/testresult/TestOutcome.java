@@ -0,0 +1,12 @@
+package com.devops.bfis.analyzer.testresult;
+
+/**
+ * Result of a single test case execution in a build
+ */
+public enum TestOutcome {
+    PASSED,
+    FAILED,
+    /** Failed at least once, then passed on rerun (Surefire flakyFailure / flakyError) */
+    FLAKY,
+    SKIPPED
+}
@@ -0,0 +1,246 @@
+package com.devops.bfis.analyzer.testresult;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-test execution counters, per repository
+ *
+ * Test names are dictionary-encoded: each distinct name is stored once and
+ * mapped to a dense int id, and all counters live in primitive arrays indexed
+ * by that id. Recording a result is one hash lookup plus a few array writes,
+ * and memory grows with the number of distinct tests, not with executions.
+ *
+ * Flakiness of a test = (reruns that passed + pass/fail flips between
+ * consecutive builds) / executions.
+ *
+ * Results are recorded per build. The tests each build already reported are
+ * remembered (a bitset of test ids for the last MAX_TRACKED_BUILDS builds),
+ * so uploading a report again does not count its tests twice, while reports
+ * of other modules of the same build still add their tests.
+ */
+@Component
+public class TestResultIndex {
+
+    /** Builds per repository whose reported tests are remembered for de-duplication */
+    private static final int MAX_TRACKED_BUILDS = 1000;
+
+    private final Map<String, RepoTestStats> statsByRepo = new ConcurrentHashMap<>();
+
+    /**
+     * Record the test executions of one report upload for a build
+     *
+     * Applied as a whole under the repository's lock. Tests an earlier upload
+     * already reported for the same build are skipped.
+     *
+     * @return Number of executions skipped as already recorded
+     */
+    public int recordBuild(String repositoryName, String buildId, List<Execution> executions) {
+        return statsByRepo.computeIfAbsent(repositoryName, r -> new RepoTestStats())
+                .recordBuild(buildId, executions);
+    }
+
+    /**
+     * Tests with the highest average duration (skipped executions excluded)
+     *
+     * @param limit Clamped to [1, number of tests]
+     */
+    public List<TestStats> getSlowestTests(String repositoryName, int limit) {
+        RepoTestStats stats = statsByRepo.get(repositoryName);
+        return stats != null ? stats.top(limit, RepoTestStats::avgMillis) : List.of();
+    }
+
+    /**
+     * Tests with the highest flakiness score; stable tests are never listed
+     *
+     * @param limit Clamped to [1, number of tests]
+     */
+    public List<TestStats> getFlakiestTests(String repositoryName, int limit) {
+        RepoTestStats stats = statsByRepo.get(repositoryName);
+        return stats != null ? stats.top(limit, RepoTestStats::flakiness) : List.of();
+    }
+
+    /**
+     * Number of distinct tests tracked for a repository
+     */
+    public int getTestCount(String repositoryName) {
+        RepoTestStats stats = statsByRepo.get(repositoryName);
+        return stats != null ? stats.size() : 0;
+    }
+
+    public void clear() {
+        statsByRepo.clear();
+    }
+
+    private interface Metric {
+        double of(RepoTestStats stats, int id);
+    }
+
+    private static final class RepoTestStats {
+        private static final byte NONE = 0;
+        private static final byte PASS = 1;
+        private static final byte FAIL = 2;
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private String[] names = new String[64];
+        private int[] runs = new int[64];
+        private int[] passed = new int[64];
+        private int[] failed = new int[64];
+        private int[] flaky = new int[64];
+        private int[] skipped = new int[64];
+        private int[] flips = new int[64];
+        private long[] totalMillis = new long[64];
+        private long[] maxMillis = new long[64];
+        private byte[] lastResult = new byte[64];
+        private int size;
+
+        private final Map<String, BitSet> testsByBuild = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BitSet> eldest) {
+                return size() > MAX_TRACKED_BUILDS;
+            }
+        };
+
+        synchronized int recordBuild(String buildId, List<Execution> executions) {
+            BitSet reported = testsByBuild.computeIfAbsent(buildId, b -> new BitSet());
+            BitSet upload = new BitSet();
+            int skippedAsRecorded = 0;
+            for (Execution execution : executions) {
+                int id = idFor(execution.testName());
+                if (reported.get(id)) {
+                    skippedAsRecorded++;
+                    continue;
+                }
+                // Repeated names within one upload (parameterized tests) all count
+                upload.set(id);
+                record(id, execution.outcome(), execution.durationMillis());
+            }
+            reported.or(upload);
+            return skippedAsRecorded;
+        }
+
+        private void record(int id, TestOutcome outcome, long durationMillis) {
+            runs[id]++;
+            switch (outcome) {
+                case PASSED -> passed[id]++;
+                case FAILED -> failed[id]++;
+                case FLAKY -> flaky[id]++;
+                case SKIPPED -> skipped[id]++;
+            }
+            if (outcome != TestOutcome.SKIPPED) {
+                totalMillis[id] += durationMillis;
+                maxMillis[id] = Math.max(maxMillis[id], durationMillis);
+
+                byte result = outcome == TestOutcome.FAILED ? FAIL : PASS;
+                if (lastResult[id] != NONE && lastResult[id] != result) {
+                    flips[id]++;
+                }
+                lastResult[id] = result;
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized List<TestStats> top(int limit, Metric metric) {
+            if (size == 0) {
+                return List.of();
+            }
+            limit = Math.max(1, Math.min(limit, size));
+            // Min-heap of the best `limit` ids: O(n log limit)
+            PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1,
+                    Comparator.comparingDouble(id -> metric.of(this, id)));
+            for (int id = 0; id < size; id++) {
+                if (metric.of(this, id) <= 0) {
+                    continue;
+                }
+                heap.add(id);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+            List<TestStats> result = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                result.add(toStats(heap.poll()));
+            }
+            Collections.reverse(result);
+            return result;
+        }
+
+        double avgMillis(int id) {
+            int timed = runs[id] - skipped[id];
+            return timed == 0 ? 0 : (double) totalMillis[id] / timed;
+        }
+
+        double flakiness(int id) {
+            return runs[id] == 0 ? 0 : (double) (flaky[id] + flips[id]) / runs[id];
+        }
+
+        private TestStats toStats(int id) {
+            return new TestStats(names[id], runs[id], passed[id], failed[id], flaky[id], skipped[id],
+                    Math.round(avgMillis(id)), maxMillis[id], flakiness(id));
+        }
+
+        private int idFor(String testName) {
+            Integer id = ids.get(testName);
+            if (id != null) {
+                return id;
+            }
+            if (size == names.length) {
+                grow();
+            }
+            names[size] = testName;
+            ids.put(testName, size);
+            return size++;
+        }
+
+        private void grow() {
+            int capacity = names.length * 2;
+            names = Arrays.copyOf(names, capacity);
+            runs = Arrays.copyOf(runs, capacity);
+            passed = Arrays.copyOf(passed, capacity);
+            failed = Arrays.copyOf(failed, capacity);
+            flaky = Arrays.copyOf(flaky, capacity);
+            skipped = Arrays.copyOf(skipped, capacity);
+            flips = Arrays.copyOf(flips, capacity);
+            totalMillis = Arrays.copyOf(totalMillis, capacity);
+            maxMillis = Arrays.copyOf(maxMillis, capacity);
+            lastResult = Arrays.copyOf(lastResult, capacity);
+        }
+    }
+
+    /**
+     * One reported test execution
+     *
+     * @param testName Fully qualified test name (class.method)
+     * @param durationMillis Reported execution time
+     */
+    public record Execution(String testName, TestOutcome outcome, long durationMillis) {}
+
+    /**
+     * Aggregated counters of one test
+     */
+    public record TestStats(
+            String testName,
+            int runs,
+            int passed,
+            int failed,
+            int flaky,
+            int skipped,
+            long avgDurationMillis,
+            long maxDurationMillis,
+            double flakinessScore
+    ) {}
+}
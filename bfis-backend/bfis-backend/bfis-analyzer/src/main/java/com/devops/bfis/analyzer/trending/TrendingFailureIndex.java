@@ -0,0 +1,148 @@
+package com.devops.bfis.analyzer.trending;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Exponentially decayed occurrence scores per failure fingerprint
+ *
+ * score(t) = sum over occurrences i of 2^(-(t - t_i) / halfLife)
+ *
+ * Scores are stored in log space relative to a fixed epoch:
+ * log(sum of e^(lambda * (t_i - epoch)))
+ * so an occurrence is one log-add-exp (O(1)) and no score ever needs to be
+ * decayed eagerly. Decay multiplies every score by the same factor, so the
+ * ranking by stored value is the ranking at any point in time; the current
+ * score is derived only when reported.
+ *
+ * The top `capacity` fingerprints are kept in a bounded ordered set. Stored
+ * values only grow, so a fingerprint can only re-enter the set through its
+ * own new occurrence; queries never rescan all failures.
+ */
+@Component
+public class TrendingFailureIndex {
+
+    private final double lambdaPerMilli;
+    private final long halfLifeMillis;
+    private final int capacity;
+    private final long epochMillis = System.currentTimeMillis();
+
+    // Guarded by this
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> top = new TreeSet<>(
+            Comparator.comparingDouble((Entry e) -> e.logScore).thenComparing(e -> e.fingerprint));
+
+    public TrendingFailureIndex(
+            @Value("${bfis.trending.half-life:PT1H}") Duration halfLife,
+            @Value("${bfis.trending.capacity:1000}") int capacity
+    ) {
+        this.halfLifeMillis = Math.max(halfLife.toMillis(), 1);
+        this.lambdaPerMilli = Math.log(2) / halfLifeMillis;
+        this.capacity = Math.max(capacity, 1);
+    }
+
+    /**
+     * Record one occurrence of a failure
+     *
+     * @param seenAt Occurrence time; null means now
+     */
+    public synchronized void record(String fingerprint, Instant seenAt) {
+        recordLocked(fingerprint, seenAt);
+    }
+
+    /**
+     * Record a batch of occurrences under one lock acquisition
+     *
+     * @param seenAt Occurrence time per fingerprint; null entries mean now
+     */
+    public synchronized void recordAll(List<String> fingerprints, List<Instant> seenAt) {
+        for (int i = 0; i < fingerprints.size(); i++) {
+            recordLocked(fingerprints.get(i), seenAt.get(i));
+        }
+    }
+
+    private void recordLocked(String fingerprint, Instant seenAt) {
+        long at = seenAt != null ? seenAt.toEpochMilli() : System.currentTimeMillis();
+        double exponent = lambdaPerMilli * (at - epochMillis);
+
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            entry = new Entry(fingerprint);
+            entry.logScore = exponent;
+            entries.put(fingerprint, entry);
+        } else {
+            boolean ranked = top.remove(entry);
+            entry.logScore = logAddExp(entry.logScore, exponent);
+            if (!ranked && top.size() >= capacity && entry.logScore <= top.first().logScore) {
+                return;
+            }
+        }
+        top.add(entry);
+        if (top.size() > capacity) {
+            top.pollFirst();
+        }
+    }
+
+    /**
+     * Highest decayed scores right now, best first
+     *
+     * @param limit Clamped to [1, capacity]
+     */
+    public synchronized List<TrendingScore> getTrending(int limit) {
+        long now = System.currentTimeMillis();
+        double nowExponent = lambdaPerMilli * (now - epochMillis);
+        limit = clampLimit(limit);
+        List<TrendingScore> result = new ArrayList<>(Math.min(limit, top.size()));
+        Iterator<Entry> it = top.descendingIterator();
+        while (it.hasNext() && result.size() < limit) {
+            Entry entry = it.next();
+            result.add(new TrendingScore(entry.fingerprint, Math.exp(entry.logScore - nowExponent)));
+        }
+        return result;
+    }
+
+    /**
+     * Number of results a query can return: limit clamped to [1, capacity]
+     */
+    private int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, capacity));
+    }
+
+    public Duration getHalfLife() {
+        return Duration.ofMillis(halfLifeMillis);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        top.clear();
+    }
+
+    private static double logAddExp(double a, double b) {
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+
+    private static final class Entry {
+        final String fingerprint;
+        double logScore;
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    /**
+     * @param score Decayed occurrence count: an occurrence one half-life ago counts 0.5
+     */
+    public record TrendingScore(String fingerprint, double score) {}
+}
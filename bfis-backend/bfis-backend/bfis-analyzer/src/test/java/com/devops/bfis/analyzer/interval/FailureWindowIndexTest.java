@@ -0,0 +1,137 @@
+package com.devops.bfis.analyzer.interval;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FailureWindowIndexTest {
+
+    private final FailureWindowIndex index = new FailureWindowIndex();
+
+    @Test
+    void findsWindowsOverlappingQueryInclusive() {
+        index.put("a", at(0), at(10));
+        index.put("b", at(5), at(20));
+        index.put("c", at(30), at(40));
+
+        assertThat(index.findOverlapping(at(10), at(10))).containsExactly("a", "b");
+        assertThat(index.findOverlapping(at(21), at(29))).isEmpty();
+        assertThat(index.findOverlapping(at(20), at(30))).containsExactly("b", "c");
+        assertThat(index.findOverlapping(at(-5), at(100))).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void putMovesExistingWindow() {
+        index.put("a", at(0), at(10));
+        index.put("b", at(50), at(60));
+
+        // Window widens on a later occurrence
+        index.put("a", at(0), at(55));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.findOverlapping(at(52), at(52))).containsExactly("a", "b");
+        assertThat(index.findOverlapping(at(11), at(20))).containsExactly("a");
+    }
+
+    @Test
+    void windowsWithSameStartAreKeptApart() {
+        index.put("a", at(5), at(6));
+        index.put("b", at(5), at(50));
+
+        index.remove("a");
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.findOverlapping(at(0), at(100))).containsExactly("b");
+        assertThat(index.findOverlapping(at(20), at(20))).containsExactly("b");
+    }
+
+    @Test
+    void removeAndClear() {
+        index.put("a", at(0), at(10));
+        index.put("b", at(5), at(15));
+
+        index.remove("a");
+        index.remove("unknown");
+
+        assertThat(index.findOverlapping(at(0), at(4))).isEmpty();
+        assertThat(index.findOverlapping(at(0), at(100))).containsExactly("b");
+
+        index.clear();
+
+        assertThat(index.size()).isZero();
+        assertThat(index.findOverlapping(at(0), at(100))).isEmpty();
+    }
+
+    @Test
+    void endBeforeStartIsAPointWindow() {
+        index.put("a", at(10), at(5));
+
+        assertThat(index.findOverlapping(at(10), at(10))).containsExactly("a");
+        assertThat(index.findOverlapping(at(5), at(9))).isEmpty();
+    }
+
+    @Test
+    void matchesBruteForceUnderRandomUpdates() {
+        Random random = new Random(42);
+        Map<String, long[]> windows = new HashMap<>();
+
+        for (int step = 0; step < 5000; step++) {
+            String key = "f" + random.nextInt(300);
+            int op = random.nextInt(10);
+            if (op == 0) {
+                index.remove(key);
+                windows.remove(key);
+            } else if (op < 4 && windows.containsKey(key)) {
+                // Widen like a new occurrence of the failure does
+                long[] window = windows.get(key);
+                long end = window[1] + random.nextInt(500);
+                index.put(key, at(window[0]), at(end));
+                windows.put(key, new long[] {window[0], end});
+            } else {
+                long start = random.nextInt(10_000);
+                long end = start + random.nextInt(1_000);
+                index.put(key, at(start), at(end));
+                windows.put(key, new long[] {start, end});
+            }
+
+            if (step % 50 == 0) {
+                long from = random.nextInt(11_000);
+                long to = from + random.nextInt(2_000);
+                assertThat(index.findOverlapping(at(from), at(to)))
+                        .as("step %d, query [%d, %d]", step, from, to)
+                        .containsExactlyElementsOf(bruteForce(windows, from, to));
+            }
+        }
+        assertThat(index.size()).isEqualTo(windows.size());
+    }
+
+    private static List<String> bruteForce(Map<String, long[]> windows, long from, long to) {
+        List<Map.Entry<String, long[]>> overlapping = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : windows.entrySet()) {
+            long[] window = entry.getValue();
+            if (window[0] <= to && window[1] >= from) {
+                overlapping.add(entry);
+            }
+        }
+        // Index order: by start, then key
+        overlapping.sort(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[0])
+                .thenComparing(Map.Entry::getKey));
+        List<String> keys = new ArrayList<>(overlapping.size());
+        for (Map.Entry<String, long[]> entry : overlapping) {
+            keys.add(entry.getKey());
+        }
+        return keys;
+    }
+
+    private static Instant at(long millis) {
+        return Instant.ofEpochMilli(millis);
+    }
+}
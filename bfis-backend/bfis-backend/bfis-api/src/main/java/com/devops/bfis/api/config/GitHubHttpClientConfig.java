@@ -0,0 +1,76 @@
+package com.devops.bfis.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Shared HTTP clients for GitHub calls
+ *
+ * API calls: one JDK HttpClient, HTTP/2 with fallback to HTTP/1.1, pooled
+ * keep-alive connections, a connect timeout and a read-timeout deadline for
+ * the complete response, headers and body
+ * (DeadlineJdkClientHttpRequestFactory), so a hung or stalled GitHub call
+ * cannot hold a request thread forever. Redirects are not followed; the job
+ * log redirect is handled by GitHubJobLogService so the token is not sent
+ * to storage.
+ *
+ * Job log storage downloads: the JDK client's timeout does not cover the
+ * body, and a blocked body read cannot be interrupted, so a log that stalls
+ * halfway would block its thread forever. Downloads use HttpURLConnection
+ * instead, whose read timeout applies to every socket read: a body that
+ * stops arriving for body-read-timeout fails the download. Bodies stay
+ * streamed (job logs are read while they download).
+ *
+ * Built from Spring Boot's RestTemplateBuilder, so every call is recorded
+ * in the http.client.requests metric (latency and outcome per method, URI
+ * template, status and host; /actuator/metrics). Callers pass URI
+ * templates with variables to keep that metric per endpoint.
+ */
+@Configuration
+public class GitHubHttpClientConfig {
+
+    @Bean
+    public HttpClient gitHubHttpClient(@Value("${bfis.github.http.connect-timeout:PT5S}") Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public RestTemplate gitHubRestTemplate(
+            RestTemplateBuilder builder,
+            HttpClient gitHubHttpClient,
+            @Value("${bfis.github.http.read-timeout:PT30S}") Duration readTimeout
+    ) {
+        return builder
+                .requestFactory(() -> new DeadlineJdkClientHttpRequestFactory(gitHubHttpClient, readTimeout))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate gitHubLogStorageRestTemplate(
+            RestTemplateBuilder builder,
+            @Value("${bfis.github.http.connect-timeout:PT5S}") Duration connectTimeout,
+            @Value("${bfis.github.http.body-read-timeout:PT30S}") Duration bodyReadTimeout
+    ) {
+        return builder
+                .requestFactory(() -> {
+                    SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+                    requestFactory.setConnectTimeout(connectTimeout);
+                    requestFactory.setReadTimeout(bodyReadTimeout);
+                    return requestFactory;
+                })
+                .build();
+    }
+}
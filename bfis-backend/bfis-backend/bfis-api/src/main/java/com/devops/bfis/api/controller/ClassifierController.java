@@ -0,0 +1,190 @@
+package com.devops.bfis.api.controller;
+
+import com.devops.bfis.analyzer.classifier.ClassificationCache;
+import com.devops.bfis.analyzer.classifier.FailureClassifier;
+import com.devops.bfis.analyzer.classifier.FailureRuleEngine;
+import com.devops.bfis.analyzer.classifier.NaiveBayesClassifier;
+import com.devops.bfis.analyzer.service.FailureReclassificationService;
+import com.devops.bfis.api.dto.ClassificationFeedbackRequest;
+import com.devops.bfis.core.enums.FailureType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for failure classification diagnostics
+ * 
+ * Endpoints:
+ * - GET    /api/classifier/rules             active rules with hit counters and timings
+ * - POST   /api/classifier/rules/reload      re-read the rules file now
+ * - GET    /api/classifier/cache             classification cache hit ratio
+ * - GET    /api/classifier/reclassification  progress of the re-classification job
+ * - POST   /api/classifier/reclassification  re-classify stored failures now
+ * - DELETE /api/classifier/reclassification  cancel the running job
+ * - GET    /api/classifier/model             learned classifier training state
+ * - POST   /api/classifier/feedback          train the learned classifier with a corrected label
+ */
+@RestController
+@RequestMapping("/api/classifier")
+@RequiredArgsConstructor
+@Slf4j
+public class ClassifierController {
+    
+    private final FailureRuleEngine ruleEngine;
+    private final ClassificationCache classificationCache;
+    private final FailureReclassificationService reclassificationService;
+    private final FailureClassifier failureClassifier;
+    private final NaiveBayesClassifier naiveBayesClassifier;
+    
+    /**
+     * GET /api/classifier/rules
+     * 
+     * Response format:
+     * {
+     *   "source": "classpath:failure-rules.conf",
+     *   "loadedAt": "2024-01-15T10:30:00Z",
+     *   "classifications": 1520,
+     *   "unmatched": 210,
+     *   "avgClassificationNanos": 850,
+     *   "rules": [
+     *     { "index": 0, "failureType": "test", "kind": "keyword", "pattern": "test", "hits": 412, ... }
+     *   ]
+     * }
+     */
+    @GetMapping("/rules")
+    public ResponseEntity<FailureRuleEngine.RuleEngineStats> getRules() {
+        return ResponseEntity.ok(ruleEngine.getStats());
+    }
+    
+    /**
+     * POST /api/classifier/rules/reload
+     * 
+     * Forces a reload check instead of waiting for the file watcher
+     */
+    @PostMapping("/rules/reload")
+    public ResponseEntity<FailureRuleEngine.RuleEngineStats> reloadRules() {
+        log.info("POST /api/classifier/rules/reload - Reloading failure rules");
+        ruleEngine.reloadIfChanged();
+        return ResponseEntity.ok(ruleEngine.getStats());
+    }
+    
+    /**
+     * GET /api/classifier/cache
+     * 
+     * Response format:
+     * {
+     *   "size": 342,
+     *   "maxEntries": 10000,
+     *   "hits": 15890,
+     *   "misses": 342,
+     *   "hitRatio": 0.979,
+     *   "evictions": 0,
+     *   "invalidations": 1
+     * }
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<ClassificationCache.CacheStats> getCacheStats() {
+        return ResponseEntity.ok(classificationCache.getStats());
+    }
+    
+    /**
+     * GET /api/classifier/reclassification
+     * 
+     * Response format:
+     * {
+     *   "state": "PENDING" | "RUNNING" | "COMPLETED" | "CANCELLED" | "FAILED",
+     *   "reason": "rules reloaded",
+     *   "startedAt": "2024-01-15T10:30:00Z",
+     *   "total": 5000,
+     *   "processed": 3500,
+     *   "changed": 42,
+     *   "applied": 0,
+     *   "distribution": { "TEST": 2100, ... }
+     * }
+     */
+    @GetMapping("/reclassification")
+    public ResponseEntity<FailureReclassificationService.JobStatus> getReclassificationStatus() {
+        FailureReclassificationService.JobStatus status = reclassificationService.getStatus();
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+    
+    /**
+     * POST /api/classifier/reclassification
+     * 
+     * Starts a background job (cancelling a running one) and returns its initial status
+     */
+    @PostMapping("/reclassification")
+    public ResponseEntity<FailureReclassificationService.JobStatus> startReclassification() {
+        log.info("POST /api/classifier/reclassification - Re-classifying stored failures");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reclassificationService.start("manual"));
+    }
+    
+    /**
+     * DELETE /api/classifier/reclassification
+     * 
+     * Cancels the running job; nothing it computed is published
+     */
+    @DeleteMapping("/reclassification")
+    public ResponseEntity<FailureReclassificationService.JobStatus> cancelReclassification() {
+        log.info("DELETE /api/classifier/reclassification - Cancelling re-classification");
+        FailureReclassificationService.JobStatus status = reclassificationService.cancel();
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+    
+    /**
+     * GET /api/classifier/model
+     * 
+     * Response format:
+     * {
+     *   "enabled": true,
+     *   "ready": true,
+     *   "features": 262144,
+     *   "minExamples": 20,
+     *   "totalExamples": 57,
+     *   "examplesPerType": { "TEST": 20, "DEPENDENCY": 12, "DOCKER": 9, "INFRA": 16 }
+     * }
+     */
+    @GetMapping("/model")
+    public ResponseEntity<NaiveBayesClassifier.ModelStats> getModel() {
+        return ResponseEntity.ok(naiveBayesClassifier.getStats());
+    }
+    
+    /**
+     * POST /api/classifier/feedback
+     * 
+     * Request body:
+     * {
+     *   "errorMessage": "Error: connect ECONNREFUSED 127.0.0.1:5432",
+     *   "failureType": "infra"
+     * }
+     */
+    @PostMapping("/feedback")
+    public ResponseEntity<?> submitFeedback(@RequestBody ClassificationFeedbackRequest request) {
+        FailureType type = parseFailureType(request.getFailureType());
+        if (request.getErrorMessage() == null || request.getErrorMessage().isBlank() || type == null) {
+            return ResponseEntity.badRequest().body("errorMessage and a valid failureType (test|dependency|docker|infra) are required");
+        }
+        log.info("POST /api/classifier/feedback - Training on corrected label {}", type);
+        failureClassifier.learn(request.getErrorMessage(), type);
+        return ResponseEntity.ok(naiveBayesClassifier.getStats());
+    }
+    
+    private static FailureType parseFailureType(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (FailureType type : FailureType.values()) {
+            if (type.getValue().equalsIgnoreCase(value) || type.name().equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -1,21 +1,31 @@
 package com.devops.bfis.api.controller;
 
+import com.devops.bfis.analyzer.correlation.CommitCorrelationIndex;
+import com.devops.bfis.api.dto.FailureCluster;
+import com.devops.bfis.api.dto.TrendingFailure;
 import com.devops.bfis.api.service.IngestService;
 import com.devops.bfis.core.domain.Failure;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Instant;
 import java.util.List;
 
 /**
  * REST controller for failure analysis endpoints
  * 
- * Endpoint: GET /api/failures
- * Purpose: Provide failure pattern data with frequency analysis
+ * Endpoints:
+ * - GET /api/failures           failure patterns with frequency analysis
+ *                                (?activeFrom=&activeTo= for those active during a window)
+ * - GET /api/failures/clusters  near-duplicate failure patterns grouped together
+ * - GET /api/failures/trending   failure patterns by recency-weighted frequency
+ * - GET /api/failures/{fingerprint}/suspect-commits  commits that likely introduced a failure
  * 
  * Contract: Must return failure objects matching frontend expectations
  */
@@ -45,13 +55,97 @@ public class FailureController {
      *   }
      * ]
      * 
+     * With activeFrom and/or activeTo (ISO-8601 instants), only failures whose
+     * [firstSeenAt, lastSeenAt] window overlaps that range are returned,
+     * ordered by firstSeenAt; answered from an interval index, O(k log n) worst case
+     * 
      * @return List of Failure objects sorted by frequency (descending)
      */
     @GetMapping
-    public ResponseEntity<List<Failure>> getFailures() {
+    public ResponseEntity<List<Failure>> getFailures(
+            @RequestParam(required = false) Instant activeFrom,
+            @RequestParam(required = false) Instant activeTo) {
         log.info("GET /api/failures - Fetching failure analysis data");
-        List<Failure> failures = ingestService.getFailures();
+        List<Failure> failures = activeFrom != null || activeTo != null
+                ? ingestService.getFailuresActiveBetween(activeFrom, activeTo)
+                : ingestService.getFailures();
         log.info("Returning {} failure patterns", failures.size());
         return ResponseEntity.ok(failures);
     }
+    
+    /**
+     * GET /api/failures/clusters
+     * 
+     * Groups failure patterns whose normalized messages are near-duplicates
+     * (MinHash/LSH), ordered by total frequency
+     * 
+     * Response format:
+     * [
+     *   {
+     *     "clusterId": "9f2c1a7be04d3c11",
+     *     "representativeMessage": "Connection refused to db-primary:5432",
+     *     "failureType": "infra",
+     *     "memberCount": 3,
+     *     "totalFrequency": 27,
+     *     "lastSeenAt": "2024-01-15T14:30:00.000Z",
+     *     "failures": [ { ...Failure... } ]
+     *   }
+     * ]
+     */
+    @GetMapping("/clusters")
+    public ResponseEntity<List<FailureCluster>> getFailureClusters() {
+        log.info("GET /api/failures/clusters - Fetching failure clusters");
+        List<FailureCluster> clusters = ingestService.getFailureClusters();
+        log.info("Returning {} failure clusters", clusters.size());
+        return ResponseEntity.ok(clusters);
+    }
+    
+    /**
+     * GET /api/failures/trending?limit=10
+     * 
+     * Failures ranked by exponentially decayed occurrence count
+     * (bfis.trending.half-life), so a burst in the last hour outranks a
+     * large but old lifetime count. limit is clamped to
+     * [1, bfis.trending.capacity].
+     * 
+     * Response format:
+     * [
+     *   { "score": 27.4, "failure": { ...Failure... } }
+     * ]
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingFailure>> getTrendingFailures(@RequestParam(defaultValue = "10") int limit) {
+        log.info("GET /api/failures/trending - limit={}", limit);
+        return ResponseEntity.ok(ingestService.getTrendingFailures(limit));
+    }
+    
+    /**
+     * GET /api/failures/{fingerprint}/suspect-commits?repositoryName=owner/repo
+     * 
+     * Commits between the last green commit and the first commit whose build
+     * hit this failure. repositoryName defaults to the repository where the
+     * failure was first seen.
+     * 
+     * Response format:
+     * {
+     *   "repositoryName": "acme/api",
+     *   "fingerprint": "9f2c1a7be04d3c11",
+     *   "introducedBy": { "commitHash": "a1b2c3d", "buildId": "1042", "seenAt": "2024-01-15T10:30:00Z" },
+     *   "lastGoodCommit": { "commitHash": "9e8d7c6", "buildId": "1039", "seenAt": "2024-01-15T09:10:00Z" },
+     *   "suspects": [ { "commitHash": "a1b2c3d", ... } ],
+     *   "laterCommits": [ { "commitHash": "f00ba47", ... } ],
+     *   "affectedCommits": 4
+     * }
+     */
+    @GetMapping("/{fingerprint}/suspect-commits")
+    public ResponseEntity<CommitCorrelationIndex.SuspectCommits> getSuspectCommits(
+            @PathVariable String fingerprint,
+            @RequestParam(required = false) String repositoryName) {
+        log.info("GET /api/failures/{}/suspect-commits - repository={}", fingerprint, repositoryName);
+        CommitCorrelationIndex.SuspectCommits suspects = ingestService.getSuspectCommits(fingerprint, repositoryName);
+        if (suspects == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(suspects);
+    }
 }
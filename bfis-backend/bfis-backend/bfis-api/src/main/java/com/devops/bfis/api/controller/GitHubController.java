@@ -1,10 +1,8 @@
 package com.devops.bfis.api.controller;
 
-import com.devops.bfis.api.dto.GitHubWorkflowRunEvent;
 import com.devops.bfis.api.config.GitHubAppConfig;
 import com.devops.bfis.api.service.*;
 import com.devops.bfis.core.domain.TrackedRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -30,13 +28,16 @@ import java.util.Map;
 @Slf4j
 public class GitHubController {
     private final GitHubAppService gitHubAppService;
-    private final GitHubWebhookProcessor webhookProcessor;
+    private final GitHubWebhookQueue webhookQueue;
     private final GitHubInstallationStore installationStore;
     private final GitHubInstallationDiscoveryService installationDiscoveryService;
     private final GitHubRepositoryService repositoryService;
     private final GitHubActionsIngestService actionsIngestService;
+    private final GitHubActionsBackfillService backfillService;
     private final GitHubJwtService jwtService;
-    private final ObjectMapper objectMapper;
+    private final GitHubApiClient apiClient;
+    private final GitHubRateLimiter rateLimiter;
+    private final GitHubRepositoryPoller repositoryPoller;
     private final GitHubAppConfig gitHubAppConfig;
     
     /**
@@ -56,10 +57,16 @@ public class GitHubController {
      * POST /api/github/webhook
      * 
      * Receives GitHub webhook events
-     * - Verifies signature
-     * - Processes workflow_run events
+     * - Verifies signature over the raw body bytes
+     * - Drops redeliveries of an already seen X-GitHub-Delivery id
+     * - Queues workflow_run events for background processing (202 Accepted)
      * - Ignores other events
      * 
+     * When the queue is full the delivery is refused with 503 + Retry-After
+     * (default) or processed inline (500 if that fails), depending on
+     * bfis.webhook.queue.overflow. Failures of queued deliveries show up in
+     * /webhook/stats and the bfis.webhook.deliveries metric.
+     * 
      * Headers:
      * - X-GitHub-Event: Event type (workflow_run, push, etc.)
      * - X-Hub-Signature-256: HMAC signature for verification
@@ -70,7 +77,7 @@ public class GitHubController {
             @RequestHeader("X-GitHub-Event") String eventType,
             @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature,
             @RequestHeader(value = "X-GitHub-Delivery", required = false) String deliveryId,
-            @RequestBody String payload
+            @RequestBody byte[] payload
     ) {
         log.info("Received GitHub webhook: event={}, delivery={}", eventType, deliveryId);
         
@@ -80,22 +87,62 @@ public class GitHubController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid signature");
         }
         
-        // Process workflow_run events
-        if ("workflow_run".equals(eventType)) {
-            try {
-                GitHubWorkflowRunEvent event = objectMapper.readValue(payload, GitHubWorkflowRunEvent.class);
-                webhookProcessor.processWorkflowRunCompleted(event);
-                log.info("Successfully processed workflow_run event for delivery: {}", deliveryId);
-            } catch (Exception e) {
-                log.error("Failed to process workflow_run event", e);
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body("Failed to process event");
-            }
-        } else {
+        if (!"workflow_run".equals(eventType)) {
             log.debug("Ignoring non-workflow_run event: {}", eventType);
+            return ResponseEntity.ok("Webhook received");
         }
         
-        return ResponseEntity.ok("Webhook received");
+        // Deserialization and processing happen on the webhook workers
+        return switch (webhookQueue.submit(deliveryId, payload)) {
+            case QUEUED -> ResponseEntity.status(HttpStatus.ACCEPTED).body("Webhook queued");
+            case PROCESSED_INLINE -> ResponseEntity.ok("Webhook received");
+            case FAILED_INLINE -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Webhook processing failed");
+            case DUPLICATE -> ResponseEntity.ok("Duplicate delivery ignored");
+            case REJECTED -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "30")
+                    .body("Webhook queue full");
+        };
+    }
+    
+    /**
+     * GET /api/github/cache
+     * 
+     * Conditional request cache: 304s served from cache vs full fetches, memory and spill usage
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<GitHubApiClient.CacheStats> getApiCacheStats() {
+        return ResponseEntity.ok(apiClient.getStats());
+    }
+    
+    /**
+     * GET /api/github/rate-limit
+     * 
+     * Rate-limit budget per installation as last reported by GitHub, waiting and deferred requests per priority
+     */
+    @GetMapping("/rate-limit")
+    public ResponseEntity<List<GitHubRateLimiter.BucketStats>> getRateLimitStats() {
+        return ResponseEntity.ok(rateLimiter.getStats());
+    }
+    
+    /**
+     * GET /api/github/poll
+     * 
+     * Scheduled polling per tracked repository: current interval, next poll, runs found
+     */
+    @GetMapping("/poll")
+    public ResponseEntity<List<GitHubRepositoryPoller.PollStats>> getPollStats() {
+        return ResponseEntity.ok(repositoryPoller.getStats());
+    }
+    
+    /**
+     * GET /api/github/webhook/stats
+     * 
+     * Webhook queue depth, rejections, failures (last failed delivery id) and wait/processing times
+     */
+    @GetMapping("/webhook/stats")
+    public ResponseEntity<GitHubWebhookQueue.QueueStats> getWebhookStats() {
+        return ResponseEntity.ok(webhookQueue.getStats());
     }
     
     /**
@@ -322,6 +369,49 @@ public class GitHubController {
         }
     }
 
+    /**
+     * POST /api/github/backfill?owner=...&repo=...
+     *
+     * Continues the paginated backfill of all workflow runs of a repository:
+     * runs newer than its high-water mark first, then older history.
+     * Each call handles at most bfis.github.backfill.max-pages-per-run pages;
+     * repeat until "complete" is true. Progress survives restarts when
+     * bfis.github.backfill.state-path is set.
+     */
+    @PostMapping("/backfill")
+    public ResponseEntity<?> backfill(@RequestParam("owner") String owner, @RequestParam("repo") String repo) {
+        ensureInstallationPresent();
+        if (!installationStore.hasInstallations()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "No GitHub App installation found"));
+        }
+
+        try {
+            Map<String, Object> summary = backfillService.backfill(owner, repo);
+            if (summary.containsKey("error") && !summary.containsKey("pages")) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(summary);
+            }
+            return ResponseEntity.ok(summary);
+        } catch (Exception e) {
+            log.error("Failed to backfill GitHub Actions runs", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to backfill GitHub Actions runs: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/github/backfill?owner=...&repo=...
+     *
+     * Backfill watermark of a repository (high-water mark, history cursor, runs ingested)
+     */
+    @GetMapping("/backfill")
+    public ResponseEntity<GitHubBackfillWatermarkStore.Watermark> getBackfillStatus(
+            @RequestParam("owner") String owner,
+            @RequestParam("repo") String repo
+    ) {
+        return ResponseEntity.ok(backfillService.getWatermark(owner, repo));
+    }
+
     /**
      * GET /api/github/actions/failure-reasons?owner=...&repo=...&perPage=20
      *
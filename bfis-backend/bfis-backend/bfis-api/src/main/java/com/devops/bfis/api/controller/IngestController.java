@@ -1,11 +1,16 @@
 package com.devops.bfis.api.controller;
 
 import com.devops.bfis.api.service.IngestService;
+import com.devops.bfis.api.dto.BatchIngestResponse;
 import com.devops.bfis.api.dto.IngestRequest;
+import com.devops.bfis.ingestor.junit.JUnitReportSummary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/api/ingest")
 public class IngestController {
@@ -24,4 +29,48 @@ public class IngestController {
         }
         return ResponseEntity.ok("Build ingested");
     }
+
+    /**
+     * POST /api/ingest/batch
+     *
+     * Body: NDJSON, one IngestRequest object per line
+     * (e.g. curl -H 'Content-Type: application/x-ndjson' --data-binary @builds.ndjson).
+     * The body is streamed; invalid lines are skipped and reported.
+     *
+     * Response: {"lines": 3, "accepted": 2, "unchanged": 0, "rejected": 1, "batches": 1, "errors": ["line 2: invalid JSON"]}
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> ingestBatch(InputStream body) {
+        try {
+            BatchIngestResponse response = ingestService.ingestBatch(body);
+            return ResponseEntity.ok(response);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Failed to read batch: " + e.getMessage());
+        }
+    }
+
+    /**
+     * POST /api/ingest/junit?repositoryName=owner/repo&buildId=1234
+     *
+     * Body: raw JUnit/Surefire XML report, or a zip artifact of reports
+     * (e.g. curl --data-binary @TEST-results.xml). The body is parsed as it
+     * streams in; the parsed test results are held until the report is complete.
+     * buildId must be a build already ingested for the repository.
+     * Re-uploading a build's report does not count its tests twice; a
+     * malformed report is rejected without recording anything.
+     */
+    @PostMapping("/junit")
+    public ResponseEntity<?> ingestJUnitReport(@RequestParam String repositoryName, @RequestParam String buildId,
+                                               InputStream body) {
+        try {
+            JUnitReportSummary summary = ingestService.ingestJUnitReport(repositoryName, buildId, body);
+            if (summary == null) {
+                return ResponseEntity.badRequest().body("Unknown build " + buildId + " of " + repositoryName
+                        + ". Register the repository via /api/repos and ingest the build via /api/ingest first.");
+            }
+            return ResponseEntity.ok(summary);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Invalid JUnit report: " + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package com.devops.bfis.api.controller;
+
+import com.devops.bfis.analyzer.testresult.TestResultIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for per-test statistics (fed by POST /api/ingest/junit)
+ *
+ * Endpoints:
+ * - GET /api/tests/slowest?repositoryName=owner/repo&limit=10
+ * - GET /api/tests/flakiest?repositoryName=owner/repo&limit=10
+ */
+@RestController
+@RequestMapping("/api/tests")
+@RequiredArgsConstructor
+@Slf4j
+public class TestController {
+
+    private final TestResultIndex testResultIndex;
+
+    /**
+     * GET /api/tests/slowest
+     *
+     * Tests with the highest average duration
+     *
+     * Response format:
+     * [
+     *   {
+     *     "testName": "com.acme.OrderServiceIT.createsOrder",
+     *     "runs": 42,
+     *     "passed": 40,
+     *     "failed": 1,
+     *     "flaky": 1,
+     *     "skipped": 0,
+     *     "avgDurationMillis": 12840,
+     *     "maxDurationMillis": 30122,
+     *     "flakinessScore": 0.07
+     *   }
+     * ]
+     */
+    @GetMapping("/slowest")
+    public ResponseEntity<List<TestResultIndex.TestStats>> getSlowestTests(
+            @RequestParam String repositoryName,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("GET /api/tests/slowest - repository={}, limit={}", repositoryName, limit);
+        return ResponseEntity.ok(testResultIndex.getSlowestTests(repositoryName, limit));
+    }
+
+    /**
+     * GET /api/tests/flakiest
+     *
+     * Tests that passed on rerun or flipped between pass and fail, most flaky first
+     * (same response format as /slowest)
+     */
+    @GetMapping("/flakiest")
+    public ResponseEntity<List<TestResultIndex.TestStats>> getFlakiestTests(
+            @RequestParam String repositoryName,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("GET /api/tests/flakiest - repository={}, limit={}", repositoryName, limit);
+        return ResponseEntity.ok(testResultIndex.getFlakiestTests(repositoryName, limit));
+    }
+}
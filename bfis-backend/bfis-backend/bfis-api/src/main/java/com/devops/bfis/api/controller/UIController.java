@@ -1,6 +1,6 @@
 package com.devops.bfis.api.controller;
 
-import com.devops.bfis.analyzer.service.FailureAnalysisService;
+import com.devops.bfis.analyzer.service.FailureInsightsService;
 import com.devops.bfis.api.dto.UIGenerateRequest;
 import com.devops.bfis.api.dto.UIGenerateResponse;
 import lombok.RequiredArgsConstructor;
@@ -26,12 +26,13 @@ import org.springframework.web.bind.annotation.RestController;
 @Slf4j
 public class UIController {
     
-    private final FailureAnalysisService failureAnalysisService;
+    private final FailureInsightsService failureInsightsService;
     
     /**
      * POST /api/ui/generate
      * 
-     * Triggers analysis logic and returns recommendations
+     * Returns the latest precomputed recommendations; the analysis itself
+     * runs in the background whenever failure data changes
      * 
      * Request body (optional):
      * {
@@ -54,8 +55,8 @@ public class UIController {
         log.info("POST /api/ui/generate - Generating UI recommendations");
         
         try {
-            // Run failure analysis
-            String insights = failureAnalysisService.generateFailureInsights();
+            // Latest prebuilt analysis (refreshed asynchronously)
+            String insights = failureInsightsService.getLatest().text();
             
             // Build response
             UIGenerateResponse response = UIGenerateResponse.builder()
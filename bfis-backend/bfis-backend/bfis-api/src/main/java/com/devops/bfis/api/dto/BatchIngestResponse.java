@@ -0,0 +1,50 @@
+package com.devops.bfis.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response DTO for POST /api/ingest/batch
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIngestResponse {
+    
+    /**
+     * Non-blank NDJSON lines read
+     */
+    private int lines;
+    
+    /**
+     * Lines ingested as builds
+     */
+    private int accepted;
+    
+    /**
+     * Accepted lines whose run (same run id and attempt) was already stored
+     */
+    private int unchanged;
+    
+    /**
+     * Lines skipped (invalid JSON or unregistered repository)
+     */
+    private int rejected;
+    
+    /**
+     * Store batches the accepted lines were applied in
+     */
+    private int batches;
+    
+    /**
+     * Reasons for the first rejected lines, e.g. "line 12: invalid JSON"
+     */
+    @Builder.Default
+    private List<String> errors = new ArrayList<>();
+}
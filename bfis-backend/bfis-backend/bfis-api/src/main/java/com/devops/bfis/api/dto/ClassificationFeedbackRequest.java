@@ -0,0 +1,28 @@
+package com.devops.bfis.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for POST /api/classifier/feedback
+ * 
+ * A corrected label for an error message, used to train the learned classifier
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClassificationFeedbackRequest {
+    
+    /**
+     * Error message (or log excerpt) that was misclassified
+     */
+    private String errorMessage;
+    
+    /**
+     * Correct failure type: test | dependency | docker | infra
+     */
+    private String failureType;
+}
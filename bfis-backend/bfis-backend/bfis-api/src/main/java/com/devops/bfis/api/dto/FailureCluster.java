@@ -0,0 +1,60 @@
+package com.devops.bfis.api.dto;
+
+import com.devops.bfis.core.domain.Failure;
+import com.devops.bfis.core.enums.FailureType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Response DTO for GET /api/failures/clusters
+ * 
+ * Group of near-duplicate failure patterns
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FailureCluster {
+    
+    /**
+     * Cluster identifier (fingerprint of the first failure in the cluster)
+     */
+    private String clusterId;
+    
+    /**
+     * Error message of the first failure in the cluster
+     */
+    private String representativeMessage;
+    
+    /**
+     * Failure type of the first failure in the cluster
+     */
+    private FailureType failureType;
+    
+    /**
+     * Number of distinct failure patterns in the cluster
+     */
+    private int memberCount;
+    
+    /**
+     * Sum of occurrences across all member patterns
+     */
+    private int totalFrequency;
+    
+    /**
+     * Most recent occurrence of any member pattern
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
+    private Instant lastSeenAt;
+    
+    /**
+     * Member failure patterns, in the order they joined the cluster
+     */
+    private List<Failure> failures;
+}
@@ -0,0 +1,35 @@
+package com.devops.bfis.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * GitHub API response for the jobs of a workflow run
+ *
+ * Subset of fields from:
+ * GET /repos/{owner}/{repo}/actions/runs/{run_id}/jobs
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GitHubWorkflowJobsResponse(
+        @JsonProperty("total_count") Integer totalCount,
+        List<Job> jobs
+) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Job(
+            Long id,
+            String name,
+            String status,
+            String conclusion,
+            List<Step> steps
+    ) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Step(
+            String name,
+            String status,
+            String conclusion
+    ) {}
+}
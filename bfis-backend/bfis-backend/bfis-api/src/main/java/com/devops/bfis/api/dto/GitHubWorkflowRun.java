@@ -0,0 +1,29 @@
+package com.devops.bfis.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * GitHub Actions workflow run
+ *
+ * Subset of fields from:
+ * GET /repos/{owner}/{repo}/actions/runs
+ * workflow_run webhook payload (same object)
+ *
+ * Everything else (repository, actor, head_commit, ...) is skipped while
+ * parsing and never materialized.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GitHubWorkflowRun(
+        Long id,
+        String name,
+        @JsonProperty("head_branch") String headBranch,
+        @JsonProperty("head_sha") String headSha,
+        String status, // completed, in_progress, queued
+        String conclusion, // success, failure, cancelled, skipped, null while running
+        @JsonProperty("html_url") String htmlUrl,
+        @JsonProperty("created_at") String createdAt,
+        @JsonProperty("updated_at") String updatedAt,
+        @JsonProperty("run_started_at") String runStartedAt,
+        @JsonProperty("run_attempt") Integer runAttempt
+) {}
@@ -1,39 +1,37 @@
 package com.devops.bfis.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
 /**
  * GitHub webhook event payload for workflow_run
  * 
- * Simplified structure focusing on fields needed for BFIS ingestion
+ * Simplified structure focusing on fields needed for BFIS ingestion;
+ * all other fields of the payload are skipped while parsing
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class GitHubWorkflowRunEvent {
     private String action; // completed, requested, in_progress
-    private WorkflowRun workflowRun;
-    private Repository repository;
     
-    @Data
-    public static class WorkflowRun {
-        private Long id;
-        private String name;
-        private String headBranch;
-        private String headSha;
-        private String status; // completed, in_progress, queued
-        private String conclusion; // success, failure, cancelled, skipped, null
-        private String createdAt;
-        private String updatedAt;
-        private String runStartedAt;
-    }
+    @JsonProperty("workflow_run")
+    private GitHubWorkflowRun workflowRun;
+    
+    private Repository repository;
     
     @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Repository {
+        @JsonProperty("full_name")
         private String fullName; // owner/repo
+        
         private String name;
         private Owner owner;
     }
     
     @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Owner {
         private String login;
     }
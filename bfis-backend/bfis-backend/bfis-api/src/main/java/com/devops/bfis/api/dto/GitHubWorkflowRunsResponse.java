@@ -0,0 +1,23 @@
+package com.devops.bfis.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * GitHub API response for a page of workflow runs
+ *
+ * Response from:
+ * GET /repos/{owner}/{repo}/actions/runs
+ *
+ * {
+ *   "total_count": 2,
+ *   "workflow_runs": [...]
+ * }
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GitHubWorkflowRunsResponse(
+        @JsonProperty("total_count") Integer totalCount,
+        @JsonProperty("workflow_runs") List<GitHubWorkflowRun> workflowRuns
+) {}
@@ -8,4 +8,8 @@ public class IngestRequest {
     public String failureType;
     public String commitHash;
     public String triggeredAt;
+    public String errorMessage;
+    // External CI run id and attempt; makes re-ingesting the same run a no-op
+    public Long runId;
+    public Integer runAttempt;
 }
@@ -0,0 +1,27 @@
+package com.devops.bfis.api.dto;
+
+import com.devops.bfis.core.domain.Failure;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for GET /api/failures/trending
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingFailure {
+    
+    /**
+     * Decayed occurrence count: an occurrence one half-life ago counts 0.5
+     */
+    private double score;
+    
+    /**
+     * The failure pattern
+     */
+    private Failure failure;
+}
@@ -0,0 +1,326 @@
+package com.devops.bfis.api.service;
+
+import com.devops.bfis.api.dto.GitHubWorkflowRun;
+import com.devops.bfis.api.service.GitHubActionsIngestService.RunsPage;
+import com.devops.bfis.api.service.GitHubBackfillWatermarkStore.Watermark;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable, paginated backfill of GitHub Actions workflow runs
+ *
+ * Each call works through at most max-pages-per-run pages of /actions/runs:
+ * - catch-up: runs created after the repository's high-water mark
+ *   (created=<mark>..<cursor>), newest first; the mark moves up when done
+ * - history: runs created before the first mark (created=<=<cursor>),
+ *   walking back until GitHub returns a short page
+ *
+ * Both walks use a created-at cursor instead of page numbers, so they are
+ * not limited to the 1000 results GitHub returns per filtered listing.
+ * Progress is saved after every page (GitHubBackfillWatermarkStore), so an
+ * interrupted backfill continues where it stopped and history that was
+ * already walked is never requested again. Runs created in the last
+ * settle-time are left for the next call, when they have likely completed.
+ *
+ * Runs a walk finds still queued or running are not ingested, but the
+ * cursors move past them, so their ids are kept in the watermark
+ * (pendingRunIds). Every call first re-checks them one by one and ingests
+ * those that have completed since; deleted runs (404) are dropped.
+ */
+@Service
+@Slf4j
+public class GitHubActionsBackfillService {
+    private static final int PAGE_SIZE = 100;
+
+    private final GitHubActionsIngestService actionsIngestService;
+    private final GitHubBackfillWatermarkStore watermarkStore;
+    private final GitHubInstallationTokenService tokenService;
+    private final GitHubInstallationStore installationStore;
+    private final TrackedRepositoryStore repoStore;
+    private final GitHubRepositoryService repositoryService;
+    private final int maxPagesPerRun;
+    private final Duration settleTime;
+
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public GitHubActionsBackfillService(
+            GitHubActionsIngestService actionsIngestService,
+            GitHubBackfillWatermarkStore watermarkStore,
+            GitHubInstallationTokenService tokenService,
+            GitHubInstallationStore installationStore,
+            TrackedRepositoryStore repoStore,
+            GitHubRepositoryService repositoryService,
+            @Value("${bfis.github.backfill.max-pages-per-run:50}") int maxPagesPerRun,
+            @Value("${bfis.github.backfill.settle-time:PT1H}") Duration settleTime
+    ) {
+        this.actionsIngestService = actionsIngestService;
+        this.watermarkStore = watermarkStore;
+        this.tokenService = tokenService;
+        this.installationStore = installationStore;
+        this.repoStore = repoStore;
+        this.repositoryService = repositoryService;
+        this.maxPagesPerRun = Math.max(maxPagesPerRun, 1);
+        this.settleTime = settleTime;
+    }
+
+    /**
+     * Continue the backfill of one repository
+     */
+    public Map<String, Object> backfill(String owner, String repo) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("owner", owner);
+        result.put("repo", repo);
+
+        // Ensure repo is registered locally (sync if needed)
+        if (!repoStore.isRegistered(owner, repo)) {
+            repositoryService.syncRepositories();
+        }
+        if (!repoStore.isRegistered(owner, repo)) {
+            result.put("error", "Repository not registered. Call /api/github/sync first (or install app for this repo).");
+            return result;
+        }
+        String installationId = installationStore.getLatestInstallationId();
+        if (installationId == null) {
+            result.put("error", "No GitHub installation id available.");
+            return result;
+        }
+
+        String repositoryName = owner + "/" + repo;
+        if (!running.add(repositoryName)) {
+            result.put("error", "Backfill already running for " + repositoryName);
+            return result;
+        }
+        try {
+            // Backfill yields to interactive and webhook traffic of the installation
+            GitHubApiClient.Auth auth = GitHubApiClient.Auth.installation(installationId,
+                    tokenService.getInstallationAccessToken(installationId))
+                    .withPriority(GitHubRateLimiter.Priority.BACKFILL);
+            Progress progress = new Progress();
+            Watermark watermark = watermarkStore.get(repositoryName);
+            Instant settled = Instant.now().minus(settleTime).truncatedTo(ChronoUnit.SECONDS);
+
+            if (watermark.getSyncedThrough() == null) {
+                // First backfill: everything up to now is history
+                watermark.setSyncedThrough(settled);
+                watermark.setHistoryCursor(settled);
+                watermark.setHistoryPage(1);
+                save(repositoryName, watermark);
+            } else if (watermark.getCatchUpTarget() == null && settled.isAfter(watermark.getSyncedThrough())) {
+                watermark.setCatchUpTarget(settled);
+                watermark.setCatchUpCursor(settled);
+                watermark.setCatchUpPage(1);
+                save(repositoryName, watermark);
+            }
+
+            recheckPendingRuns(owner, repo, auth, watermark, progress, result);
+            save(repositoryName, watermark);
+
+            // New runs first, then older history
+            while (!result.containsKey("error") && watermark.getCatchUpTarget() != null
+                    && progress.pages < maxPagesPerRun) {
+                String created = watermark.getSyncedThrough() + ".." + watermark.getCatchUpCursor();
+                Cursor next = walkPage(owner, repo, auth, created,
+                        watermark.getCatchUpCursor(), watermark.getCatchUpPage(), watermark, progress);
+                if (next == null) {
+                    result.put("error", "GitHub API request failed");
+                    break;
+                }
+                if (next == Cursor.DONE) {
+                    watermark.setSyncedThrough(watermark.getCatchUpTarget());
+                    watermark.setCatchUpTarget(null);
+                    watermark.setCatchUpCursor(null);
+                    watermark.setCatchUpPage(0);
+                } else {
+                    watermark.setCatchUpCursor(next.createdAt());
+                    watermark.setCatchUpPage(next.page());
+                }
+                save(repositoryName, watermark);
+            }
+
+            while (!result.containsKey("error") && watermark.getCatchUpTarget() == null
+                    && !watermark.isHistoryComplete() && progress.pages < maxPagesPerRun) {
+                String created = "<=" + watermark.getHistoryCursor();
+                Cursor next = walkPage(owner, repo, auth, created,
+                        watermark.getHistoryCursor(), watermark.getHistoryPage(), watermark, progress);
+                if (next == null) {
+                    result.put("error", "GitHub API request failed");
+                    break;
+                }
+                if (next == Cursor.DONE) {
+                    watermark.setHistoryComplete(true);
+                    watermark.setHistoryPage(0);
+                } else {
+                    watermark.setHistoryCursor(next.createdAt());
+                    watermark.setHistoryPage(next.page());
+                }
+                save(repositoryName, watermark);
+            }
+
+            result.put("pages", progress.pages);
+            result.put("ingested", progress.ingested);
+            result.put("unchanged", progress.unchanged);
+            result.put("skipped", progress.skipped);
+            result.put("reasons", progress.reasons);
+            result.put("syncedThrough", watermark.getSyncedThrough());
+            result.put("historyCursor", watermark.getHistoryCursor());
+            result.put("historyComplete", watermark.isHistoryComplete());
+            result.put("pendingRuns", pendingRunIds(watermark).size());
+            result.put("complete", watermark.getCatchUpTarget() == null && watermark.isHistoryComplete());
+            log.info("Backfill of {}: {} pages, {} runs ingested, {} unchanged, history complete: {}",
+                    repositoryName, progress.pages, progress.ingested, progress.unchanged, watermark.isHistoryComplete());
+            return result;
+        } finally {
+            running.remove(repositoryName);
+        }
+    }
+
+    /**
+     * Ingest pending runs that have completed since a walk passed them
+     */
+    private void recheckPendingRuns(String owner, String repo, GitHubApiClient.Auth auth, Watermark watermark,
+                                    Progress progress, Map<String, Object> result) {
+        Set<Long> pending = pendingRunIds(watermark);
+        if (pending.isEmpty()) {
+            return;
+        }
+        Set<Long> stillPending = new TreeSet<>(pending);
+        for (Long runId : pending) {
+            GitHubWorkflowRun run;
+            try {
+                run = actionsIngestService.fetchWorkflowRun(owner, repo, auth, runId);
+            } catch (HttpClientErrorException.NotFound e) {
+                stillPending.remove(runId);
+                continue;
+            } catch (RestClientException e) {
+                log.debug("Re-check of run {} in {}/{} failed", runId, owner, repo, e);
+                result.put("error", "GitHub API request failed");
+                break;
+            }
+            if (run == null || isIncomplete(run)) {
+                continue;
+            }
+            count(actionsIngestService.ingestWorkflowRuns(owner, repo, auth, List.of(run), progress.reasons),
+                    watermark, progress);
+            stillPending.remove(runId);
+        }
+        watermark.setPendingRunIds(stillPending);
+    }
+
+    private static Set<Long> pendingRunIds(Watermark watermark) {
+        return watermark.getPendingRunIds() != null ? watermark.getPendingRunIds() : Set.of();
+    }
+
+    private static boolean isIncomplete(GitHubWorkflowRun run) {
+        return run.conclusion() == null || run.conclusion().isBlank();
+    }
+
+    /**
+     * Backfill progress of one repository (empty if never backfilled)
+     */
+    public Watermark getWatermark(String owner, String repo) {
+        return watermarkStore.get(owner + "/" + repo);
+    }
+
+    /**
+     * Ingest one page and work out where the walk continues
+     *
+     * @return DONE after a short page, null if the request failed
+     */
+    private Cursor walkPage(String owner, String repo, GitHubApiClient.Auth auth, String created,
+                            Instant cursor, int page, Watermark watermark, Progress progress) {
+        RunsPage runsPage = actionsIngestService.fetchWorkflowRunsPage(owner, repo, auth, created, PAGE_SIZE, page);
+        if (runsPage == null) {
+            return null;
+        }
+        progress.pages++;
+
+        count(actionsIngestService.ingestWorkflowRuns(owner, repo, auth, runsPage.runs(), progress.reasons),
+                watermark, progress);
+
+        // The cursor moves past runs still in progress: remember them for a re-check
+        Set<Long> pending = null;
+        for (GitHubWorkflowRun run : runsPage.runs()) {
+            if (run != null && run.id() != null && isIncomplete(run)) {
+                if (pending == null) {
+                    pending = new TreeSet<>(pendingRunIds(watermark));
+                }
+                pending.add(run.id());
+            }
+        }
+        if (pending != null) {
+            watermark.setPendingRunIds(pending);
+        }
+
+        Instant oldest = null;
+        for (GitHubWorkflowRun run : runsPage.runs()) {
+            Instant createdAt = createdAt(run);
+            if (createdAt != null && (oldest == null || createdAt.isBefore(oldest))) {
+                oldest = createdAt;
+            }
+        }
+
+        if (runsPage.runs().size() < PAGE_SIZE) {
+            return Cursor.DONE;
+        }
+        if (oldest == null || !oldest.isBefore(cursor)) {
+            // A full page of runs created at the cursor itself: page through them
+            return new Cursor(cursor, page + 1);
+        }
+        // Inclusive filter: runs at the new cursor are listed again and found unchanged
+        return new Cursor(oldest, 1);
+    }
+
+    private static void count(List<GitHubActionsIngestService.RunOutcome> outcomes, Watermark watermark, Progress progress) {
+        for (GitHubActionsIngestService.RunOutcome outcome : outcomes) {
+            switch (outcome) {
+                case INGESTED -> {
+                    progress.ingested++;
+                    watermark.setRunsIngested(watermark.getRunsIngested() + 1);
+                }
+                case UNCHANGED -> progress.unchanged++;
+                case SKIPPED -> progress.skipped++;
+            }
+        }
+    }
+
+    private void save(String repositoryName, Watermark watermark) {
+        watermark.setUpdatedAt(Instant.now());
+        watermarkStore.save(repositoryName, watermark);
+    }
+
+    private static Instant createdAt(GitHubWorkflowRun run) {
+        if (run == null || run.createdAt() == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(run.createdAt());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private record Cursor(Instant createdAt, int page) {
+        static final Cursor DONE = new Cursor(null, 0);
+    }
+
+    private static final class Progress {
+        int pages;
+        int ingested;
+        int unchanged;
+        int skipped;
+        final Map<String, Integer> reasons = new HashMap<>();
+    }
+}
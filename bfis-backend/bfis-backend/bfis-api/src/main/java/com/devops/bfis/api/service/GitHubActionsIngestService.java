@@ -1,36 +1,38 @@
 package com.devops.bfis.api.service;
 
+import com.devops.bfis.analyzer.classifier.FailureClassifier;
+import com.devops.bfis.api.dto.GitHubWorkflowJobsResponse;
+import com.devops.bfis.api.dto.GitHubWorkflowRun;
+import com.devops.bfis.api.dto.GitHubWorkflowRunsResponse;
 import com.devops.bfis.api.dto.IngestRequest;
+import com.devops.bfis.core.enums.FailureType;
+import com.devops.bfis.ingestor.log.JobLogSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GitHubActionsIngestService {
-    private static final String GITHUB_API_BASE = "https://api.github.com";
-
     private final GitHubInstallationTokenService tokenService;
     private final GitHubInstallationStore installationStore;
     private final TrackedRepositoryStore repoStore;
     private final GitHubRepositoryService repositoryService;
     private final IngestService ingestService;
+    private final FailureClassifier failureClassifier;
+    private final GitHubJobLogService jobLogService;
+    private final GitHubRequestExecutor requestExecutor;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final GitHubApiClient apiClient;
 
     public Map<String, Object> getRecentFailureReasons(String owner, String repo, int perPage) {
         Map<String, Object> result = new HashMap<>();
@@ -43,105 +45,87 @@ public class GitHubActionsIngestService {
             result.put("error", "No GitHub installation id available.");
             return result;
         }
-        String accessToken = tokenService.getInstallationAccessToken(installationId);
-
-        String url = GITHUB_API_BASE + "/repos/" + owner + "/" + repo + "/actions/runs?per_page=" + Math.max(1, Math.min(perPage, 100));
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", "Bearer " + accessToken);
-        headers.set("Accept", "application/vnd.github+json");
-        headers.set("X-GitHub-Api-Version", "2022-11-28");
-
-        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), Map.class);
-        if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
-            result.put("error", "GitHub API request failed: " + response.getStatusCode());
-            return result;
-        }
+        GitHubApiClient.Auth auth = GitHubApiClient.Auth.installation(installationId,
+                tokenService.getInstallationAccessToken(installationId));
 
-        Object runsObj = response.getBody().get("workflow_runs");
-        if (!(runsObj instanceof List<?> runs)) {
+        RunsPage runsPage = fetchWorkflowRunsPage(owner, repo, auth, null, perPage, 1);
+        if (runsPage == null) {
             result.put("error", "Unexpected GitHub API response: workflow_runs missing");
             return result;
         }
+        List<GitHubWorkflowRun> runs = runsPage.runs();
 
-        List<Map<String, Object>> failures = new java.util.ArrayList<>();
+        List<Map<String, Object>> failures = new ArrayList<>();
         Map<String, Integer> reasonCounts = new HashMap<>();
+        List<Supplier<FailureDetails>> detailLookups = new ArrayList<>();
+        List<Map<String, Object>> detailItems = new ArrayList<>();
 
-        for (Object runObj : runs) {
-            if (!(runObj instanceof Map<?, ?> run)) {
+        for (GitHubWorkflowRun run : runs) {
+            if (run == null) {
                 continue;
             }
 
-            String conclusion = asString(run.get("conclusion"));
+            String conclusion = run.conclusion();
             if (conclusion == null || conclusion.isBlank() || "success".equalsIgnoreCase(conclusion)) {
                 continue;
             }
 
-            String runId = run.get("id") != null ? String.valueOf(run.get("id")) : null;
-            String runName = asString(run.get("name"));
-            String htmlUrl = asString(run.get("html_url"));
-            String headBranch = asString(run.get("head_branch"));
-            String headSha = asString(run.get("head_sha"));
-            String createdAt = asString(run.get("created_at"));
+            String runId = run.id() != null ? String.valueOf(run.id()) : null;
 
             Map<String, Object> item = new HashMap<>();
             item.put("runId", runId);
-            item.put("workflowName", runName);
+            item.put("workflowName", run.name());
             item.put("conclusion", conclusion);
-            item.put("htmlUrl", htmlUrl);
-            item.put("headBranch", headBranch);
-            item.put("headSha", headSha);
-            item.put("createdAt", createdAt);
+            item.put("htmlUrl", run.htmlUrl());
+            item.put("headBranch", run.headBranch());
+            item.put("headSha", run.headSha());
+            item.put("createdAt", run.createdAt());
 
             if (runId != null) {
-                FailureDetails details = fetchFailureDetailsFromJobs(owner, repo, accessToken, runId, conclusion);
-                item.put("failureType", details.failureType);
-                item.put("failedJob", details.failedJob);
-                item.put("failedStep", details.failedStep);
-                item.put("reason", details.reason);
-                if (details.failureType != null) {
-                    reasonCounts.put(details.failureType, reasonCounts.getOrDefault(details.failureType, 0) + 1);
-                }
+                detailItems.add(item);
+                detailLookups.add(() -> fetchFailureDetailsFromJobs(owner, repo, auth, runId, conclusion));
             }
 
             failures.add(item);
         }
 
+        // Jobs requests of all failed runs run concurrently
+        List<FailureDetails> details = requestExecutor.invokeAll(auth, detailLookups);
+        for (int i = 0; i < details.size(); i++) {
+            Map<String, Object> item = detailItems.get(i);
+            FailureDetails detail = details.get(i);
+            item.put("failureType", detail.failureType);
+            item.put("failedJob", detail.failedJob);
+            item.put("failedStep", detail.failedStep);
+            item.put("reason", detail.reason);
+            if (detail.failureType != null) {
+                reasonCounts.put(detail.failureType, reasonCounts.getOrDefault(detail.failureType, 0) + 1);
+            }
+        }
+
         result.put("failedRuns", failures);
         result.put("reasons", reasonCounts);
         result.put("count", failures.size());
         return result;
     }
 
-    private FailureDetails fetchFailureDetailsFromJobs(String owner, String repo, String accessToken, String runId, String conclusion) {
+    private FailureDetails fetchFailureDetailsFromJobs(String owner, String repo, GitHubApiClient.Auth auth, String runId, String conclusion) {
         try {
-            String jobsUrl = GITHUB_API_BASE + "/repos/" + owner + "/" + repo + "/actions/runs/" + runId + "/jobs?per_page=100";
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Bearer " + accessToken);
-            headers.set("Accept", "application/vnd.github+json");
-            headers.set("X-GitHub-Api-Version", "2022-11-28");
-
-            ResponseEntity<Map> jobsResp = restTemplate.exchange(jobsUrl, HttpMethod.GET, new HttpEntity<>(headers), Map.class);
-            if (jobsResp.getStatusCode() != HttpStatus.OK || jobsResp.getBody() == null) {
-                return FailureDetails.fallback(conclusion);
-            }
-
-            Object jobsObj = jobsResp.getBody().get("jobs");
-            if (!(jobsObj instanceof List<?> jobs)) {
+            GitHubWorkflowJobsResponse jobsBody = fetchJobs(owner, repo, auth, runId);
+            if (jobsBody == null || jobsBody.jobs() == null) {
                 return FailureDetails.fallback(conclusion);
             }
 
-            for (Object jobObj : jobs) {
-                if (!(jobObj instanceof Map<?, ?> job)) continue;
-                String jobName = asString(job.get("name"));
-                String jobConclusion = asString(job.get("conclusion"));
+            for (GitHubWorkflowJobsResponse.Job job : jobsBody.jobs()) {
+                if (job == null) continue;
+                String jobName = job.name();
+                String jobConclusion = job.conclusion();
 
-                Object stepsObj = job.get("steps");
-                if (stepsObj instanceof List<?> steps) {
-                    for (Object stepObj : steps) {
-                        if (!(stepObj instanceof Map<?, ?> step)) continue;
-                        String stepConclusion = asString(step.get("conclusion"));
-                        String stepStatus = asString(step.get("status"));
+                if (job.steps() != null) {
+                    for (GitHubWorkflowJobsResponse.Step step : job.steps()) {
+                        if (step == null) continue;
+                        String stepConclusion = step.conclusion();
+                        String stepStatus = step.status();
 
                         // Prefer any explicit non-success conclusion
                         if (stepConclusion == null || stepConclusion.isBlank()) {
@@ -151,7 +135,7 @@ public class GitHubActionsIngestService {
                             continue;
                         }
 
-                        String stepName = asString(step.get("name"));
+                        String stepName = step.name();
                         String failureType = inferFailureTypeFromStepName(stepConclusion, stepName);
                         String reason;
                         if (stepName != null && !stepName.isBlank()) {
@@ -189,16 +173,7 @@ public class GitHubActionsIngestService {
     }
 
     private String inferFailureTypeFromStepName(String conclusion, String stepName) {
-        if (conclusion != null) {
-            String c = conclusion.toLowerCase(Locale.ROOT);
-            if (c.contains("timed_out") || c.contains("cancelled") || c.contains("startup_failure")) return "infra";
-        }
-        if (stepName == null) return "infra";
-        String n = stepName.toLowerCase(Locale.ROOT);
-        if (n.contains("docker")) return "docker";
-        if (n.contains("depend") || n.contains("install") || n.contains("npm") || n.contains("pnpm") || n.contains("mvn") || n.contains("maven") || n.contains("gradle")) return "dependency";
-        if (n.contains("test")) return "test";
-        return "infra";
+        return failureClassifier.classifyStep(conclusion, stepName).getValue();
     }
 
     private record FailureDetails(String failureType, String failedJob, String failedStep, String reason) {
@@ -233,27 +208,11 @@ public class GitHubActionsIngestService {
             return result;
         }
 
-        String accessToken = tokenService.getInstallationAccessToken(installationId);
-
-        String url = GITHUB_API_BASE + "/repos/" + owner + "/" + repo + "/actions/runs?per_page=" + Math.max(1, Math.min(perPage, 100));
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", "Bearer " + accessToken);
-        headers.set("Accept", "application/vnd.github+json");
-        headers.set("X-GitHub-Api-Version", "2022-11-28");
-
-        HttpEntity<String> request = new HttpEntity<>(headers);
+        GitHubApiClient.Auth auth = GitHubApiClient.Auth.installation(installationId,
+                tokenService.getInstallationAccessToken(installationId));
 
-        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, request, Map.class);
-        if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
-            result.put("ingested", 0);
-            result.put("skipped", 0);
-            result.put("error", "GitHub API request failed: " + response.getStatusCode());
-            return result;
-        }
-
-        Object runsObj = response.getBody().get("workflow_runs");
-        if (!(runsObj instanceof List<?> runs)) {
+        RunsPage runsPage = fetchWorkflowRunsPage(owner, repo, auth, null, perPage, 1);
+        if (runsPage == null) {
             result.put("ingested", 0);
             result.put("skipped", 0);
             result.put("error", "Unexpected GitHub API response: workflow_runs missing");
@@ -262,128 +221,232 @@ public class GitHubActionsIngestService {
 
         int ingested = 0;
         int skipped = 0;
+        int unchanged = 0;
         Map<String, Integer> reasonCounts = new HashMap<>();
 
-        for (Object runObj : runs) {
-            if (!(runObj instanceof Map<?, ?> run)) {
-                skipped++;
-                continue;
+        for (RunOutcome outcome : ingestWorkflowRuns(owner, repo, auth, runsPage.runs(), reasonCounts)) {
+            switch (outcome) {
+                case INGESTED -> ingested++;
+                case UNCHANGED -> unchanged++;
+                case SKIPPED -> skipped++;
             }
+        }
 
-            String headBranch = asString(run.get("head_branch"));
-            String headSha = asString(run.get("head_sha"));
-            String runStartedAt = asString(run.get("run_started_at"));
-            String createdAt = asString(run.get("created_at"));
-            String updatedAt = asString(run.get("updated_at"));
-            String conclusion = asString(run.get("conclusion"));
+        result.put("ingested", ingested);
+        result.put("skipped", skipped);
+        result.put("unchanged", unchanged);
+        result.put("reasons", reasonCounts);
+        return result;
+    }
 
-            // Only ingest completed runs (conclusion present)
-            if (conclusion == null || conclusion.isBlank()) {
-                skipped++;
-                continue;
+    /**
+     * Ingest the completed workflow runs of one /actions/runs listing page
+     *
+     * Already ingested runs (same run id and attempt) are recognized first,
+     * with a lookup. The jobs request and log download of the remaining
+     * failed runs are then fanned out concurrently and joined before the
+     * builds are ingested in listing order.
+     *
+     * @param reasonCounts Failure type counts, updated for failed runs
+     * @return Outcome per run, in listing order
+     */
+    List<RunOutcome> ingestWorkflowRuns(String owner, String repo, GitHubApiClient.Auth auth, List<GitHubWorkflowRun> runs,
+                                        Map<String, Integer> reasonCounts) {
+        List<RunOutcome> outcomes = new ArrayList<>(runs.size());
+        List<IngestRequest> requests = new ArrayList<>(runs.size());
+        List<Supplier<FetchedFailure>> failureLookups = new ArrayList<>();
+        List<Integer> failedIndexes = new ArrayList<>();
+
+        for (GitHubWorkflowRun run : runs) {
+            IngestRequest ingest = toIngestRequest(owner, repo, run, outcomes);
+            requests.add(ingest);
+            if (ingest != null && "failed".equals(ingest.status)) {
+                failedIndexes.add(requests.size() - 1);
+                failureLookups.add(() -> fetchFailure(owner, repo, auth, run));
             }
+        }
 
-            String status = "failed";
-            if ("success".equalsIgnoreCase(conclusion) || "neutral".equalsIgnoreCase(conclusion) || "skipped".equalsIgnoreCase(conclusion)) {
-                status = "success";
+        List<FetchedFailure> failures = requestExecutor.invokeAll(auth, failureLookups);
+        for (int i = 0; i < failures.size(); i++) {
+            IngestRequest ingest = requests.get(failedIndexes.get(i));
+            FetchedFailure failure = failures.get(i);
+            ingest.failureType = failure.failureType();
+            ingest.errorMessage = failure.errorMessage();
+            if (failure.failureType() != null) {
+                reasonCounts.put(failure.failureType(), reasonCounts.getOrDefault(failure.failureType(), 0) + 1);
             }
+        }
 
-            int durationSeconds = computeDurationSeconds(runStartedAt, createdAt, updatedAt);
-            String triggeredAt = firstNonBlank(runStartedAt, createdAt);
-
-            String failureType = null;
-            if (!"success".equals(status)) {
-                failureType = inferFailureType(owner, repo, accessToken, run);
-                if (failureType != null) {
-                    reasonCounts.put(failureType, reasonCounts.getOrDefault(failureType, 0) + 1);
-                }
+        for (int i = 0; i < requests.size(); i++) {
+            IngestRequest ingest = requests.get(i);
+            if (ingest != null) {
+                outcomes.set(i, ingestService.ingestBuild(ingest) ? RunOutcome.INGESTED : RunOutcome.SKIPPED);
             }
+        }
+        return outcomes;
+    }
 
-            IngestRequest ingest = new IngestRequest();
-            ingest.repositoryName = owner + "/" + repo;
-            ingest.branch = headBranch != null ? headBranch : "main";
-            ingest.status = status;
-            ingest.durationSeconds = durationSeconds;
-            ingest.commitHash = headSha;
-            ingest.triggeredAt = triggeredAt;
-            ingest.failureType = failureType;
-
-            boolean accepted = ingestService.ingestBuild(ingest);
-            if (accepted) {
-                ingested++;
-            } else {
-                skipped++;
-            }
+    /**
+     * Map a listed run to an ingest request without failure details
+     *
+     * @param outcomes Receives the run's outcome (null when it is to be ingested)
+     * @return null when the run is skipped or already ingested
+     */
+    private IngestRequest toIngestRequest(String owner, String repo, GitHubWorkflowRun run, List<RunOutcome> outcomes) {
+        if (run == null) {
+            outcomes.add(RunOutcome.SKIPPED);
+            return null;
         }
 
-        result.put("ingested", ingested);
-        result.put("skipped", skipped);
-        result.put("reasons", reasonCounts);
-        return result;
+        String conclusion = run.conclusion();
+        // Only ingest completed runs (conclusion present)
+        if (conclusion == null || conclusion.isBlank()) {
+            outcomes.add(RunOutcome.SKIPPED);
+            return null;
+        }
+
+        // Already ingested runs cost a lookup, not the jobs and log requests
+        Long runId = run.id();
+        Integer runAttempt = run.runAttempt();
+        if (runId != null && ingestService.isRunIngested(owner + "/" + repo, runId, runAttempt)) {
+            outcomes.add(RunOutcome.UNCHANGED);
+            return null;
+        }
+
+        String status = "failed";
+        if ("success".equalsIgnoreCase(conclusion) || "neutral".equalsIgnoreCase(conclusion) || "skipped".equalsIgnoreCase(conclusion)) {
+            status = "success";
+        }
+
+        String headBranch = run.headBranch();
+
+        IngestRequest ingest = new IngestRequest();
+        ingest.repositoryName = owner + "/" + repo;
+        ingest.branch = headBranch != null ? headBranch : "main";
+        ingest.status = status;
+        ingest.durationSeconds = computeDurationSeconds(run.runStartedAt(), run.createdAt(), run.updatedAt());
+        ingest.commitHash = run.headSha();
+        ingest.triggeredAt = firstNonBlank(run.runStartedAt(), run.createdAt());
+        ingest.runId = runId;
+        ingest.runAttempt = runAttempt;
+        outcomes.add(null);
+        return ingest;
     }
 
-    private String inferFailureType(String owner, String repo, String accessToken, Map<?, ?> run) {
-        String conclusion = asString(run.get("conclusion"));
-        if (conclusion != null) {
-            String c = conclusion.toLowerCase(Locale.ROOT);
-            if (c.contains("timed_out")) return "infra";
-            if (c.contains("cancelled")) return "infra";
-            if (c.contains("startup_failure")) return "infra";
+    /**
+     * Failure type from the jobs endpoint, refined by the failed job's log
+     * Runs on the request executor; only performs GitHub calls and classification
+     */
+    private FetchedFailure fetchFailure(String owner, String repo, GitHubApiClient.Auth auth, GitHubWorkflowRun run) {
+        InferredFailure inferred = inferFailureType(owner, repo, auth, run);
+        String failureType = inferred.failureType();
+
+        // Log ingestion stage: real error text from the failed job's log
+        JobLogSummary jobLog = jobLogService.fetchJobLog(owner, repo, inferred.jobId(), auth);
+        String errorMessage = jobLog.primaryError();
+        if (errorMessage != null && FailureType.INFRA.getValue().equals(failureType)) {
+            // Step names were inconclusive; let the error lines decide
+            failureType = failureClassifier.classifyMessage(jobLog.errorText()).getValue();
         }
+        return new FetchedFailure(failureType, errorMessage);
+    }
 
-        Object idObj = run.get("id");
-        String runId = idObj != null ? String.valueOf(idObj) : null;
-        if (runId == null) {
-            return "infra";
+    private record FetchedFailure(String failureType, String errorMessage) {}
+
+    enum RunOutcome {
+        INGESTED,
+        UNCHANGED,
+        SKIPPED
+    }
+
+    /**
+     * One page of /actions/runs
+     *
+     * @param created GitHub created filter (e.g. "2024-01-01T00:00:00Z..2024-02-01T00:00:00Z"), or null
+     * @return null when the request failed or the response has no workflow_runs
+     */
+    RunsPage fetchWorkflowRunsPage(String owner, String repo, GitHubApiClient.Auth auth, String created, int perPage, int page) {
+        String url = GitHubApiClient.GITHUB_API_BASE + "/repos/{owner}/{repo}/actions/runs?per_page={perPage}&page={page}";
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("owner", owner);
+        variables.put("repo", repo);
+        variables.put("perPage", Math.max(1, Math.min(perPage, 100)));
+        variables.put("page", Math.max(page, 1));
+        if (created != null) {
+            // Passed as a variable so operators like <= are encoded
+            url += "&created={created}";
+            variables.put("created", created);
         }
 
-        try {
-            String jobsUrl = GITHUB_API_BASE + "/repos/" + owner + "/" + repo + "/actions/runs/" + runId + "/jobs?per_page=100";
+        GitHubWorkflowRunsResponse body = apiClient.get(url, variables, auth, GitHubWorkflowRunsResponse.class);
+        if (body == null || body.workflowRuns() == null) {
+            return null;
+        }
+        List<GitHubWorkflowRun> runs = body.workflowRuns();
+        return new RunsPage(body.totalCount() != null ? body.totalCount() : runs.size(), runs);
+    }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Bearer " + accessToken);
-            headers.set("Accept", "application/vnd.github+json");
-            headers.set("X-GitHub-Api-Version", "2022-11-28");
+    record RunsPage(int totalCount, List<GitHubWorkflowRun> runs) {}
 
-            HttpEntity<String> request = new HttpEntity<>(headers);
-            ResponseEntity<Map> jobsResp = restTemplate.exchange(jobsUrl, HttpMethod.GET, request, Map.class);
-            if (jobsResp.getStatusCode() != HttpStatus.OK || jobsResp.getBody() == null) {
-                return "infra";
-            }
+    /**
+     * GET /repos/{owner}/{repo}/actions/runs/{runId}
+     *
+     * @throws org.springframework.web.client.RestClientException on 4xx/5xx (404: run deleted)
+     */
+    GitHubWorkflowRun fetchWorkflowRun(String owner, String repo, GitHubApiClient.Auth auth, long runId) {
+        return apiClient.get(GitHubApiClient.GITHUB_API_BASE + "/repos/{owner}/{repo}/actions/runs/{runId}",
+                Map.of("owner", owner, "repo", repo, "runId", runId), auth, GitHubWorkflowRun.class);
+    }
 
-            Object jobsObj = jobsResp.getBody().get("jobs");
-            if (!(jobsObj instanceof List<?> jobs)) {
-                return "infra";
-            }
+    /**
+     * GET /repos/{owner}/{repo}/actions/runs/{runId}/jobs (conditional, cached)
+     */
+    private GitHubWorkflowJobsResponse fetchJobs(String owner, String repo, GitHubApiClient.Auth auth, String runId) {
+        return apiClient.get(GitHubApiClient.GITHUB_API_BASE + "/repos/{owner}/{repo}/actions/runs/{runId}/jobs?per_page=100",
+                Map.of("owner", owner, "repo", repo, "runId", runId), auth, GitHubWorkflowJobsResponse.class);
+    }
 
-            for (Object jobObj : jobs) {
-                if (!(jobObj instanceof Map<?, ?> job)) continue;
+    private InferredFailure inferFailureType(String owner, String repo, GitHubApiClient.Auth auth, GitHubWorkflowRun run) {
+        if (failureClassifier.isInfraConclusion(run.conclusion())) {
+            return InferredFailure.INFRA;
+        }
 
-                Object stepsObj = job.get("steps");
-                if (!(stepsObj instanceof List<?> steps)) continue;
+        if (run.id() == null) {
+            return InferredFailure.INFRA;
+        }
 
-                for (Object stepObj : steps) {
-                    if (!(stepObj instanceof Map<?, ?> step)) continue;
-                    String stepConclusion = asString(step.get("conclusion"));
-                    if (!"failure".equalsIgnoreCase(stepConclusion)) continue;
+        try {
+            GitHubWorkflowJobsResponse jobsBody = fetchJobs(owner, repo, auth, String.valueOf(run.id()));
+            if (jobsBody == null || jobsBody.jobs() == null) {
+                return InferredFailure.INFRA;
+            }
 
-                    String name = asString(step.get("name"));
-                    if (name == null) continue;
-                    String n = name.toLowerCase(Locale.ROOT);
+            for (GitHubWorkflowJobsResponse.Job job : jobsBody.jobs()) {
+                if (job == null || job.steps() == null) continue;
 
-                    if (n.contains("docker")) return "docker";
-                    if (n.contains("depend") || n.contains("install") || n.contains("npm") || n.contains("pnpm") || n.contains("mvn") || n.contains("maven") || n.contains("gradle")) return "dependency";
-                    if (n.contains("test")) return "test";
+                for (GitHubWorkflowJobsResponse.Step step : job.steps()) {
+                    if (step == null || !"failure".equalsIgnoreCase(step.conclusion())) continue;
+
+                    String name = step.name();
+                    if (name == null) continue;
 
-                    // Something else failed inside the workflow
-                    return "infra";
+                    // Falls back to infra when something else failed inside the workflow
+                    String jobId = job.id() != null ? String.valueOf(job.id()) : null;
+                    return new InferredFailure(inferFailureTypeFromStepName(null, name), jobId);
                 }
             }
         } catch (Exception e) {
             log.debug("Failed to infer failure type from jobs endpoint", e);
         }
 
-        return "infra";
+        return InferredFailure.INFRA;
+    }
+
+    /**
+     * Failure type inferred from the jobs endpoint, plus the failed job (if found) for log extraction
+     */
+    private record InferredFailure(String failureType, String jobId) {
+        static final InferredFailure INFRA = new InferredFailure("infra", null);
     }
 
     private int computeDurationSeconds(String runStartedAt, String createdAt, String updatedAt) {
@@ -404,8 +467,4 @@ public class GitHubActionsIngestService {
         if (b != null && !b.isBlank()) return b;
         return Instant.now().toString();
     }
-
-    private String asString(Object o) {
-        return o == null ? null : String.valueOf(o);
-    }
 }
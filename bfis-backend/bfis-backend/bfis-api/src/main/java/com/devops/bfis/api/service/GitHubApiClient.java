@@ -0,0 +1,375 @@
+package com.devops.bfis.api.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared client for GitHub REST GET calls, with a conditional request cache
+ *
+ * Responses carrying an ETag or Last-Modified are cached per installation
+ * and URL as raw bytes. The next request for the same URL sends
+ * If-None-Match / If-Modified-Since; a 304 is answered by parsing the cached
+ * bytes and does not count against the installation's rate limit. Only the
+ * bytes are kept, so bfis.github.cache.max-bytes bounds what the cache
+ * really holds; parsing costs far less than the round trip it replaces.
+ *
+ * Memory is bounded by bfis.github.cache.max-bytes, least recently used
+ * first out. With bfis.github.cache.spill-dir set, evicted entries are
+ * written to disk (bounded by spill-max-bytes) and still used for
+ * conditional requests; a 304 reads them back. Spill files left by a
+ * previous process are deleted on startup (their validators were in memory).
+ *
+ * Every request passes GitHubRateLimiter first (in the Auth's priority
+ * class) and feeds the response's rate-limit headers back to it. A request
+ * rejected by a primary or secondary rate limit is retried after the limit
+ * lifts, up to bfis.github.rate-limit.max-retries times.
+ */
+@Component
+@Slf4j
+public class GitHubApiClient {
+    public static final String GITHUB_API_BASE = "https://api.github.com";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final GitHubRateLimiter rateLimiter;
+    private final int maxRetries;
+    private final long maxBytes;
+    private final Path spillDir;
+    private final long spillMaxBytes;
+
+    // Guarded by this
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final LinkedHashMap<String, Spilled> spilled = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+    private long spilledBytes;
+
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder fetched = new LongAdder();
+    private final LongAdder uncacheable = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder spillReads = new LongAdder();
+
+    public GitHubApiClient(
+            RestTemplate gitHubRestTemplate,
+            ObjectMapper objectMapper,
+            GitHubRateLimiter rateLimiter,
+            @Value("${bfis.github.rate-limit.max-retries:3}") int maxRetries,
+            @Value("${bfis.github.cache.max-bytes:33554432}") long maxBytes,
+            @Value("${bfis.github.cache.spill-dir:}") String spillDir,
+            @Value("${bfis.github.cache.spill-max-bytes:268435456}") long spillMaxBytes
+    ) {
+        this.restTemplate = gitHubRestTemplate;
+        this.objectMapper = objectMapper;
+        this.rateLimiter = rateLimiter;
+        this.maxRetries = Math.max(maxRetries, 0);
+        this.maxBytes = Math.max(maxBytes, 0);
+        this.spillDir = spillDir == null || spillDir.isBlank() ? null : Path.of(spillDir.trim());
+        this.spillMaxBytes = spillMaxBytes;
+    }
+
+    @PostConstruct
+    public void clearSpillDir() {
+        if (spillDir == null || !Files.isDirectory(spillDir)) {
+            return;
+        }
+        int deleted = 0;
+        // Only files named like spill() names them
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spillDir, "*.json")) {
+            for (Path file : files) {
+                if (file.getFileName().toString().matches("[0-9a-f]{64}\\.json")) {
+                    deleteQuietly(file);
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clear GitHub response spill directory {}", spillDir, e);
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} GitHub response spill files left by a previous run", deleted);
+        }
+    }
+
+    /**
+     * Credentials of a call; the cache and the rate limit are partitioned by scope
+     *
+     * @param scope Installation id, or "app" for App JWT calls
+     * @param priority Rate-limit class of the call (INTERACTIVE unless set)
+     */
+    public record Auth(String scope, String token, GitHubRateLimiter.Priority priority) {
+        public static Auth installation(String installationId, String accessToken) {
+            return new Auth("installation:" + installationId, accessToken, GitHubRateLimiter.Priority.INTERACTIVE);
+        }
+
+        public static Auth app(String jwt) {
+            return new Auth("app", jwt, GitHubRateLimiter.Priority.INTERACTIVE);
+        }
+
+        public Auth withPriority(GitHubRateLimiter.Priority priority) {
+            return new Auth(scope, token, priority);
+        }
+    }
+
+    public <T> T get(String url, Map<String, ?> uriVariables, Auth auth, Class<T> type) {
+        return get(url, uriVariables, auth, objectMapper.constructType(type));
+    }
+
+    public <T> T get(String url, Map<String, ?> uriVariables, Auth auth, TypeReference<T> type) {
+        return get(url, uriVariables, auth, objectMapper.constructType(type));
+    }
+
+    /**
+     * GET a GitHub API URL and parse the JSON body
+     *
+     * @param url URL template, expanded with uriVariables (may be null)
+     * @return Parsed body, or null when GitHub answered without one
+     * @throws org.springframework.web.client.RestClientException on 4xx/5xx and I/O errors
+     */
+    private <T> T get(String url, Map<String, ?> uriVariables, Auth auth, JavaType type) {
+        Map<String, ?> variables = uriVariables != null ? uriVariables : Map.of();
+        URI uri = restTemplate.getUriTemplateHandler().expand(url, variables);
+        String key = auth.scope() + " " + uri;
+
+        Validators validators = validatorsFor(key);
+        ResponseEntity<byte[]> response = exchange(url, variables, auth, validators);
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            T cached = cachedBody(key, type);
+            if (cached != null) {
+                notModified.increment();
+                return cached;
+            }
+            // Entry evicted in between: ask again without validators
+            response = exchange(url, variables, auth, null);
+        }
+
+        fetched.increment();
+        byte[] body = response.getBody();
+        if (response.getStatusCode() != HttpStatus.OK || body == null) {
+            return null;
+        }
+        T parsed = parse(body, type);
+        String etag = response.getHeaders().getETag();
+        String lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+        if (etag != null || lastModified != null) {
+            store(key, new Entry(etag, lastModified, body));
+        } else {
+            uncacheable.increment();
+        }
+        return parsed;
+    }
+
+    private ResponseEntity<byte[]> exchange(String url, Map<String, ?> variables, Auth auth, Validators validators) {
+        for (int attempt = 0; ; attempt++) {
+            rateLimiter.acquire(auth.scope(), auth.priority());
+            try {
+                ResponseEntity<byte[]> response = send(url, variables, auth, validators);
+                rateLimiter.update(auth.scope(), response.getHeaders());
+                return response;
+            } catch (HttpStatusCodeException e) {
+                rateLimiter.update(auth.scope(), e.getResponseHeaders());
+                boolean rateLimited = rateLimiter.onErrorResponse(auth.scope(), e.getStatusCode(), e.getResponseHeaders());
+                if (!rateLimited || attempt >= maxRetries) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private ResponseEntity<byte[]> send(String url, Map<String, ?> variables, Auth auth, Validators validators) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + auth.token());
+        headers.set("Accept", "application/vnd.github+json");
+        headers.set("X-GitHub-Api-Version", "2022-11-28");
+        if (validators != null) {
+            if (validators.etag() != null) {
+                headers.set(HttpHeaders.IF_NONE_MATCH, validators.etag());
+            }
+            if (validators.lastModified() != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, validators.lastModified());
+            }
+        }
+        // Sent as template + variables so client metrics are tagged per endpoint
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class, variables);
+    }
+
+    private synchronized Validators validatorsFor(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            return new Validators(entry.etag, entry.lastModified);
+        }
+        Spilled spill = spilled.get(key);
+        return spill != null ? new Validators(spill.etag, spill.lastModified) : null;
+    }
+
+    private <T> T cachedBody(String key, JavaType type) {
+        Entry entry;
+        Spilled spill = null;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                spill = spilled.remove(key);
+                if (spill != null) {
+                    spilledBytes -= spill.size;
+                }
+            }
+        }
+        if (entry != null) {
+            return parse(entry.raw, type);
+        }
+        if (spill == null) {
+            return null;
+        }
+        try {
+            byte[] raw = Files.readAllBytes(spill.path);
+            Files.deleteIfExists(spill.path);
+            spillReads.increment();
+            store(key, new Entry(spill.etag, spill.lastModified, raw));
+            return parse(raw, type);
+        } catch (IOException e) {
+            log.debug("Failed to read spilled GitHub response {}", spill.path, e);
+            return null;
+        }
+    }
+
+    private <T> T parse(byte[] body, JavaType type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected GitHub API response: " + e.getMessage(), e);
+        }
+    }
+
+    private void store(String key, Entry entry) {
+        if (entry.raw.length > maxBytes) {
+            uncacheable.increment();
+            return;
+        }
+        List<Map.Entry<String, Entry>> evicted = new ArrayList<>();
+        synchronized (this) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                bytes -= previous.raw.length;
+            }
+            Spilled stale = spilled.remove(key);
+            if (stale != null) {
+                spilledBytes -= stale.size;
+                deleteQuietly(stale.path);
+            }
+            bytes += entry.raw.length;
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            while (bytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Entry> eldest = it.next();
+                it.remove();
+                bytes -= eldest.getValue().raw.length;
+                evictions.increment();
+                evicted.add(eldest);
+            }
+        }
+        if (spillDir != null) {
+            // Disk writes happen outside the lock
+            for (Map.Entry<String, Entry> e : evicted) {
+                spill(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    private void spill(String key, Entry entry) {
+        try {
+            Files.createDirectories(spillDir);
+            Path path = spillDir.resolve(sha256(key) + ".json");
+            Files.write(path, entry.raw);
+            List<Path> deleted = new ArrayList<>();
+            synchronized (this) {
+                Spilled previous = spilled.put(key, new Spilled(entry.etag, entry.lastModified, path, entry.raw.length));
+                if (previous != null) {
+                    spilledBytes -= previous.size;
+                }
+                spilledBytes += entry.raw.length;
+                Iterator<Spilled> it = spilled.values().iterator();
+                while (spilledBytes > spillMaxBytes && it.hasNext()) {
+                    Spilled eldest = it.next();
+                    it.remove();
+                    spilledBytes -= eldest.size;
+                    deleted.add(eldest.path);
+                }
+            }
+            deleted.forEach(GitHubApiClient::deleteQuietly);
+        } catch (IOException e) {
+            log.debug("Failed to spill GitHub response to {}", spillDir, e);
+        }
+    }
+
+    /**
+     * Conditional request counters and cache occupancy
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(entries.size(), bytes, maxBytes, spilled.size(), spilledBytes,
+                notModified.sum(), fetched.sum(), uncacheable.sum(), evictions.sum(), spillReads.sum());
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Orphaned spill files are overwritten or cleaned up with the directory
+        }
+    }
+
+    private static String sha256(String key) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Validators(String etag, String lastModified) {}
+
+    private record Entry(String etag, String lastModified, byte[] raw) {}
+
+    private record Spilled(String etag, String lastModified, Path path, int size) {}
+
+    /**
+     * @param notModified Requests answered with 304 from the cache (free of rate limit)
+     * @param fetched Requests that transferred a full body
+     */
+    public record CacheStats(
+            int entries,
+            long bytes,
+            long maxBytes,
+            int spilledEntries,
+            long spilledBytes,
+            long notModified,
+            long fetched,
+            long uncacheable,
+            long evictions,
+            long spillReads
+    ) {}
+}
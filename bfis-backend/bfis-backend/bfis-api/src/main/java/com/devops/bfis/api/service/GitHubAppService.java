@@ -9,7 +9,9 @@ import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 /**
  * Service for GitHub App operations
@@ -21,9 +23,14 @@ import java.security.NoSuchAlgorithmException;
 @Slf4j
 public class GitHubAppService {
     private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final int HMAC_SHA256_LENGTH = 32;
+    private static final String SIGNATURE_PREFIX = "sha256=";
     
     private final GitHubAppConfig config;
     
+    // Mac is not thread-safe; one keyed instance per request thread, reused across requests
+    private final ThreadLocal<Mac> webhookMac = ThreadLocal.withInitial(this::newWebhookMac);
+    
     /**
      * Generate GitHub App installation URL
      * Users will be redirected here to install the app on their repositories
@@ -43,51 +50,53 @@ public class GitHubAppService {
      * Verify GitHub webhook signature using HMAC SHA-256
      * 
      * GitHub sends signature in header: X-Hub-Signature-256: sha256=<hash>
+     * The HMAC is computed over the raw body bytes with a per-thread keyed Mac
+     * and compared in constant time against the decoded header value.
      * 
-     * @param payload Raw webhook payload (body)
+     * @param payload Raw webhook payload (body bytes, as received)
      * @param signature Signature from X-Hub-Signature-256 header
      * @return true if signature is valid
      */
-    public boolean verifyWebhookSignature(String payload, String signature) {
-        if (signature == null || !signature.startsWith("sha256=")) {
+    public boolean verifyWebhookSignature(byte[] payload, String signature) {
+        if (signature == null || !signature.startsWith(SIGNATURE_PREFIX)
+                || signature.length() != SIGNATURE_PREFIX.length() + HMAC_SHA256_LENGTH * 2) {
             log.warn("Invalid signature format");
             return false;
         }
         
-        String expectedSignature = signature.substring(7); // Remove "sha256=" prefix
-        
+        byte[] expected;
         try {
-            Mac mac = Mac.getInstance(HMAC_SHA256);
-            SecretKeySpec secretKey = new SecretKeySpec(
-                config.getWebhookSecret().getBytes(StandardCharsets.UTF_8),
-                HMAC_SHA256
-            );
-            mac.init(secretKey);
-            
-            byte[] hash = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
-            String computedSignature = bytesToHex(hash);
-            
-            boolean valid = computedSignature.equalsIgnoreCase(expectedSignature);
-            if (!valid) {
-                log.warn("Webhook signature verification failed");
-            }
-            return valid;
-            
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-            log.error("Error verifying webhook signature", e);
+            expected = HexFormat.of().parseHex(signature, SIGNATURE_PREFIX.length(), signature.length());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid signature format");
+            return false;
+        }
+        
+        Mac mac = webhookMac.get();
+        if (mac == null) {
+            log.error("Webhook secret is not configured, rejecting webhook");
             return false;
         }
+        
+        // doFinal resets the Mac for the next request on this thread
+        boolean valid = MessageDigest.isEqual(mac.doFinal(payload), expected);
+        if (!valid) {
+            log.warn("Webhook signature verification failed");
+        }
+        return valid;
     }
     
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder hexString = new StringBuilder();
-        for (byte b : bytes) {
-            String hex = Integer.toHexString(0xff & b);
-            if (hex.length() == 1) {
-                hexString.append('0');
-            }
-            hexString.append(hex);
+    private Mac newWebhookMac() {
+        String secret = config.getWebhookSecret();
+        if (secret == null || secret.isEmpty()) {
+            return null;
+        }
+        try {
+            Mac mac = Mac.getInstance(HMAC_SHA256);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_SHA256));
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Cannot initialize webhook HMAC", e);
         }
-        return hexString.toString();
     }
 }
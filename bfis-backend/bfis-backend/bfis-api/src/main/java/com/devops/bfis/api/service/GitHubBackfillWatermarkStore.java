@@ -0,0 +1,132 @@
+package com.devops.bfis.api.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Per-repository progress of the GitHub Actions backfill
+ *
+ * Kept in memory and, when bfis.github.backfill.state-path is set, written
+ * to that JSON file after every change (temp file + atomic rename), so a
+ * backfill resumes where it stopped after a restart. Only set the path when
+ * the ingested builds outlive a restart too; otherwise history already
+ * marked as done would not be fetched again.
+ */
+@Component
+@Slf4j
+public class GitHubBackfillWatermarkStore {
+
+    // Key: owner/repo; guarded by this
+    private final Map<String, Watermark> watermarks = new TreeMap<>();
+    private final ObjectMapper objectMapper;
+    private final Path statePath;
+
+    public GitHubBackfillWatermarkStore(
+            ObjectMapper objectMapper,
+            @Value("${bfis.github.backfill.state-path:}") String statePath
+    ) {
+        this.objectMapper = objectMapper;
+        this.statePath = statePath == null || statePath.isBlank() ? null : Path.of(statePath.trim());
+        load();
+    }
+
+    /**
+     * Copy of the repository's watermark; an empty one if never backfilled
+     */
+    public synchronized Watermark get(String repositoryName) {
+        Watermark watermark = watermarks.get(repositoryName);
+        return watermark != null ? watermark.toBuilder().build() : new Watermark();
+    }
+
+    public synchronized void save(String repositoryName, Watermark watermark) {
+        watermarks.put(repositoryName, watermark.toBuilder().build());
+        persist();
+    }
+
+    private void load() {
+        if (statePath == null || !Files.isRegularFile(statePath)) {
+            return;
+        }
+        try {
+            Map<String, Watermark> loaded = objectMapper.readValue(statePath.toFile(),
+                    new TypeReference<Map<String, Watermark>>() {});
+            watermarks.putAll(loaded);
+            log.info("Loaded backfill watermarks for {} repositories from {}", loaded.size(), statePath);
+        } catch (IOException e) {
+            log.warn("Failed to read backfill watermarks from {}, starting over", statePath, e);
+        }
+    }
+
+    private void persist() {
+        if (statePath == null) {
+            return;
+        }
+        try {
+            Path parent = statePath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "backfill-", ".tmp");
+            objectMapper.writeValue(temp.toFile(), watermarks);
+            Files.move(temp, statePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write backfill watermarks to {}", statePath, e);
+        }
+    }
+
+    /**
+     * Backfill progress of one repository
+     *
+     * Runs are listed newest first, so both walks move backwards in time
+     * with a created-at cursor (plus a page number for runs sharing the
+     * cursor's timestamp).
+     */
+    @Data
+    @Builder(toBuilder = true)
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Watermark {
+
+        /**
+         * High-water mark: every run created up to here (back to historyCursor) is ingested
+         */
+        private Instant syncedThrough;
+
+        /**
+         * Catch-up walk over (syncedThrough, catchUpTarget]; becomes the new syncedThrough when done
+         */
+        private Instant catchUpTarget;
+        private Instant catchUpCursor;
+        private int catchUpPage;
+
+        /**
+         * History walk below the first syncedThrough; runs older than the cursor are still missing
+         */
+        private Instant historyCursor;
+        private int historyPage;
+        private boolean historyComplete;
+
+        /**
+         * Runs the walks passed while they were still queued or running; re-checked
+         * by id on every backfill until they complete (replaced, never modified)
+         */
+        private Set<Long> pendingRunIds;
+
+        private long runsIngested;
+        private Instant updatedAt;
+    }
+}
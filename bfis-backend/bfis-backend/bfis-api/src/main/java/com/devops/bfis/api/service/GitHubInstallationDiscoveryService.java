@@ -1,15 +1,10 @@
 package com.devops.bfis.api.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -25,10 +20,8 @@ import java.util.Objects;
 @RequiredArgsConstructor
 @Slf4j
 public class GitHubInstallationDiscoveryService {
-    private static final String GITHUB_API_BASE = "https://api.github.com";
-
     private final GitHubJwtService jwtService;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final GitHubApiClient apiClient;
 
     private volatile String lastError;
 
@@ -37,21 +30,12 @@ public class GitHubInstallationDiscoveryService {
             lastError = null;
             String jwt = jwtService.generateJwt();
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Bearer " + jwt);
-            headers.set("Accept", "application/vnd.github+json");
-            headers.set("X-GitHub-Api-Version", "2022-11-28");
-
-            HttpEntity<Void> request = new HttpEntity<>(headers);
-
-            ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
-                    GITHUB_API_BASE + "/app/installations",
-                    HttpMethod.GET,
-                    request,
-                    new ParameterizedTypeReference<>() {}
+            List<Map<String, Object>> body = apiClient.get(
+                    GitHubApiClient.GITHUB_API_BASE + "/app/installations",
+                    null,
+                    GitHubApiClient.Auth.app(jwt),
+                    new TypeReference<List<Map<String, Object>>>() {}
             );
-
-            List<Map<String, Object>> body = response.getBody();
             if (body == null) {
                 return Collections.emptyList();
             }
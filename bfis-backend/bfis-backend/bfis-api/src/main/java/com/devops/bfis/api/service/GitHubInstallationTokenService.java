@@ -25,9 +25,7 @@ import java.util.Map;
 public class GitHubInstallationTokenService {
     private final GitHubJwtService jwtService;
     private final GitHubInstallationStore installationStore;
-    private final RestTemplate restTemplate = new RestTemplate();
-    
-    private static final String GITHUB_API_BASE = "https://api.github.com";
+    private final RestTemplate gitHubRestTemplate;
     
     /**
      * Get or create an access token for an installation
@@ -71,8 +69,7 @@ public class GitHubInstallationTokenService {
             String jwt = jwtService.generateJwt();
             
             // Build request
-            String url = String.format("%s/app/installations/%s/access_tokens", 
-                    GITHUB_API_BASE, installationId);
+            String url = GitHubApiClient.GITHUB_API_BASE + "/app/installations/{installationId}/access_tokens";
             
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -83,11 +80,12 @@ public class GitHubInstallationTokenService {
             HttpEntity<String> request = new HttpEntity<>("{}", headers);
             
             // Make request
-            ResponseEntity<Map> response = restTemplate.exchange(
+            ResponseEntity<Map> response = gitHubRestTemplate.exchange(
                     url,
                     HttpMethod.POST,
                     request,
-                    Map.class
+                    Map.class,
+                    installationId
             );
             
             if (response.getStatusCode() == HttpStatus.CREATED) {
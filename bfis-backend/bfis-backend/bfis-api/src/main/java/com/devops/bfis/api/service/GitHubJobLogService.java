@@ -0,0 +1,108 @@
+package com.devops.bfis.api.service;
+
+import com.devops.bfis.ingestor.log.JobLogParser;
+import com.devops.bfis.ingestor.log.JobLogSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Streams GitHub Actions job logs through JobLogParser
+ *
+ * GET /repos/{owner}/{repo}/actions/jobs/{job_id}/logs answers with a redirect
+ * to short-lived log storage. The redirect is followed manually so the
+ * installation token is never sent to the storage host, and the log body is
+ * handed to the parser as a stream (never buffered as a whole). The API
+ * request goes through GitHubRateLimiter; the storage download does not
+ * count against the rate limit. The download uses a client whose read
+ * timeout covers the body, so a stalled log fails instead of hanging.
+ */
+@Service
+@Slf4j
+public class GitHubJobLogService {
+    private final boolean enabled;
+    private final JobLogParser parser;
+    private final RestTemplate restTemplate;
+    private final RestTemplate storageRestTemplate;
+    private final GitHubRateLimiter rateLimiter;
+
+    public GitHubJobLogService(
+            RestTemplate gitHubRestTemplate,
+            @Qualifier("gitHubLogStorageRestTemplate") RestTemplate storageRestTemplate,
+            GitHubRateLimiter rateLimiter,
+            @Value("${bfis.github.job-logs.enabled:true}") boolean enabled,
+            @Value("${bfis.github.job-logs.max-bytes:67108864}") long maxBytes,
+            @Value("${bfis.github.job-logs.max-line-length:2000}") int maxLineLength,
+            @Value("${bfis.github.job-logs.context-lines:3}") int contextLines,
+            @Value("${bfis.github.job-logs.max-excerpts:5}") int maxExcerpts
+    ) {
+        this.enabled = enabled;
+        this.rateLimiter = rateLimiter;
+        this.parser = new JobLogParser(maxLineLength, contextLines, maxExcerpts, maxBytes);
+        // Shared client does not follow redirects
+        this.restTemplate = gitHubRestTemplate;
+        this.storageRestTemplate = storageRestTemplate;
+    }
+
+    /**
+     * Fetch and parse the log of a single job
+     *
+     * @return Extracted error lines, or an empty summary when the log is unavailable
+     */
+    public JobLogSummary fetchJobLog(String owner, String repo, String jobId, GitHubApiClient.Auth auth) {
+        if (!enabled || jobId == null) {
+            return JobLogSummary.empty();
+        }
+        String url = GitHubApiClient.GITHUB_API_BASE + "/repos/{owner}/{repo}/actions/jobs/{jobId}/logs";
+        try {
+            rateLimiter.acquire(auth.scope(), auth.priority());
+            URI location = restTemplate.execute(url, HttpMethod.GET, request -> {
+                request.getHeaders().set("Authorization", "Bearer " + auth.token());
+                request.getHeaders().set("Accept", "application/vnd.github+json");
+                request.getHeaders().set("X-GitHub-Api-Version", "2022-11-28");
+            }, response -> {
+                rateLimiter.update(auth.scope(), response.getHeaders());
+                return response.getStatusCode().is3xxRedirection() ? response.getHeaders().getLocation() : null;
+            }, Map.of("owner", owner, "repo", repo, "jobId", jobId));
+
+            if (location == null) {
+                log.debug("No log redirect returned for job {}", jobId);
+                return JobLogSummary.empty();
+            }
+            return parse(location);
+        } catch (HttpStatusCodeException e) {
+            rateLimiter.update(auth.scope(), e.getResponseHeaders());
+            rateLimiter.onErrorResponse(auth.scope(), e.getStatusCode(), e.getResponseHeaders());
+            log.debug("Failed to fetch log for job {}: {}", jobId, e.getStatusCode());
+            return JobLogSummary.empty();
+        } catch (Exception e) {
+            log.debug("Failed to fetch log for job {}", jobId, e);
+            return JobLogSummary.empty();
+        }
+    }
+
+    /**
+     * Stream a log from any URL (pre-signed storage URL or a local stand-in server)
+     */
+    public JobLogSummary parse(URI logLocation) {
+        JobLogSummary summary = storageRestTemplate.execute(logLocation, HttpMethod.GET, null, response -> {
+            if (response.getStatusCode() != HttpStatus.OK) {
+                return JobLogSummary.empty();
+            }
+            return parser.parse(response.getBody());
+        });
+        if (summary != null) {
+            log.debug("Parsed job log: {} bytes, {} lines, {} error lines{}", summary.bytesRead(), summary.linesRead(),
+                    summary.errorLines().size(), summary.truncated() ? " (truncated)" : "");
+        }
+        return summary != null ? summary : JobLogSummary.empty();
+    }
+}
@@ -0,0 +1,291 @@
+package com.devops.bfis.api.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rate-limit aware admission of GitHub API requests
+ *
+ * One token bucket per credential scope (installation or App JWT). Its
+ * level is set from X-RateLimit-Limit / -Remaining / -Reset of every
+ * response, decremented per request in between, and refilled at the reset
+ * time. Requests are admitted by priority class:
+ * - INTERACTIVE (user-facing endpoints) may use the whole remaining budget
+ * - WEBHOOK (enrichment of webhook deliveries) leaves webhook-reserve of
+ *   the limit to interactive calls
+ * - BACKFILL leaves backfill-reserve of the limit to both others
+ *
+ * A request that may not run yet waits (lower classes also wait while a
+ * higher class is waiting) until the bucket resets or a response raises
+ * the level again. A secondary rate limit (403/429 with Retry-After, or an
+ * exhausted primary limit) blocks the whole scope until it lifts. Waits
+ * are capped per class; past the cap the request is sent anyway and GitHub
+ * decides. Work is deferred instead of failed.
+ */
+@Component
+@Slf4j
+public class GitHubRateLimiter {
+
+    public enum Priority {
+        INTERACTIVE,
+        WEBHOOK,
+        BACKFILL
+    }
+
+    private static final long UNKNOWN = -1;
+    private static final long DEFAULT_SECONDARY_BACKOFF_MILLIS = 60_000;
+
+    private final double webhookReserve;
+    private final double backfillReserve;
+    private final long[] maxWaitMillis = new long[Priority.values().length];
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public GitHubRateLimiter(
+            @Value("${bfis.github.rate-limit.webhook-reserve:0.05}") double webhookReserve,
+            @Value("${bfis.github.rate-limit.backfill-reserve:0.2}") double backfillReserve,
+            @Value("${bfis.github.rate-limit.interactive-max-wait:PT10S}") Duration interactiveMaxWait,
+            @Value("${bfis.github.rate-limit.webhook-max-wait:PT5M}") Duration webhookMaxWait,
+            @Value("${bfis.github.rate-limit.backfill-max-wait:PT2H}") Duration backfillMaxWait
+    ) {
+        this.webhookReserve = webhookReserve;
+        this.backfillReserve = Math.max(backfillReserve, webhookReserve);
+        maxWaitMillis[Priority.INTERACTIVE.ordinal()] = interactiveMaxWait.toMillis();
+        maxWaitMillis[Priority.WEBHOOK.ordinal()] = webhookMaxWait.toMillis();
+        maxWaitMillis[Priority.BACKFILL.ordinal()] = backfillMaxWait.toMillis();
+    }
+
+    /**
+     * Wait until a request of this class may be sent, then take a token
+     */
+    public void acquire(String scope, Priority priority) {
+        bucket(scope).acquire(priority, maxWaitMillis[priority.ordinal()]);
+    }
+
+    /**
+     * Requests of this class the scope's budget admits right now, in [1, max]
+     *
+     * The budget above the class's reserve; max while the budget is unknown
+     * (no response seen yet), 1 while the scope is blocked or out of budget.
+     */
+    public int admissible(String scope, Priority priority, int max) {
+        return bucket(scope).admissible(priority, max);
+    }
+
+    /**
+     * Take the authoritative budget from a response's rate-limit headers
+     */
+    public void update(String scope, HttpHeaders headers) {
+        if (headers != null) {
+            bucket(scope).update(headers);
+        }
+    }
+
+    /**
+     * Check an error response for a (secondary) rate limit and block the scope if so
+     *
+     * @return true if the request was rate limited and may be retried after waiting
+     */
+    public boolean onErrorResponse(String scope, HttpStatusCode status, HttpHeaders headers) {
+        if (headers == null || (status.value() != 403 && status.value() != 429)) {
+            return false;
+        }
+        String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        boolean exhausted = "0".equals(headers.getFirst("X-RateLimit-Remaining"));
+        if (status.value() != 429 && retryAfter == null && !exhausted) {
+            // Plain permission error
+            return false;
+        }
+        long until;
+        if (retryAfter != null) {
+            until = System.currentTimeMillis() + parseLong(retryAfter, 60) * 1000;
+        } else if (exhausted) {
+            until = parseLong(headers.getFirst("X-RateLimit-Reset"), 0) * 1000;
+        } else {
+            until = System.currentTimeMillis() + DEFAULT_SECONDARY_BACKOFF_MILLIS;
+        }
+        log.warn("GitHub rate limit hit for {} (status {}), deferring requests until {}",
+                scope, status.value(), Instant.ofEpochMilli(until));
+        bucket(scope).blockUntil(until);
+        return true;
+    }
+
+    public List<BucketStats> getStats() {
+        List<BucketStats> stats = new ArrayList<>();
+        buckets.forEach((scope, bucket) -> stats.add(bucket.stats(scope)));
+        return stats;
+    }
+
+    private Bucket bucket(String scope) {
+        return buckets.computeIfAbsent(scope, s -> new Bucket());
+    }
+
+    private static long parseLong(String value, long fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private final class Bucket {
+        private long limit = UNKNOWN;
+        private long remaining = UNKNOWN;
+        private long resetAtMillis;
+        private long blockedUntilMillis;
+        private final int[] waiting = new int[Priority.values().length];
+        private final long[] deferred = new long[Priority.values().length];
+        private long waitTimeouts;
+
+        synchronized void acquire(Priority priority, long maxWait) {
+            long start = System.currentTimeMillis();
+            long deadline = maxWait > 0 ? start + maxWait : Long.MAX_VALUE;
+            boolean counted = false;
+            waiting[priority.ordinal()]++;
+            try {
+                while (true) {
+                    long now = System.currentTimeMillis();
+                    refillIfReset(now);
+                    long waitUntil;
+                    if (blockedUntilMillis > now) {
+                        waitUntil = blockedUntilMillis;
+                    } else if (!higherPriorityWaiting(priority) && admits(priority)) {
+                        if (remaining > 0) {
+                            remaining--;
+                        }
+                        return;
+                    } else {
+                        // Until the reset, or until a response or a leaving waiter wakes us up
+                        waitUntil = resetAtMillis > now ? resetAtMillis : now + 1000;
+                    }
+                    if (now >= deadline) {
+                        waitTimeouts++;
+                        return;
+                    }
+                    if (!counted) {
+                        deferred[priority.ordinal()]++;
+                        counted = true;
+                    }
+                    wait(Math.max(1, Math.min(waitUntil, deadline) - now));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                waiting[priority.ordinal()]--;
+                notifyAll();
+            }
+        }
+
+        synchronized int admissible(Priority priority, int max) {
+            long now = System.currentTimeMillis();
+            refillIfReset(now);
+            if (blockedUntilMillis > now) {
+                return 1;
+            }
+            if (remaining == UNKNOWN || limit == UNKNOWN) {
+                return Math.max(max, 1);
+            }
+            long budget = remaining - (long) Math.ceil(limit * reserve(priority));
+            return (int) Math.max(1, Math.min(budget, max));
+        }
+
+        synchronized void update(HttpHeaders headers) {
+            long headerLimit = parseLong(headers.getFirst("X-RateLimit-Limit"), UNKNOWN);
+            long headerRemaining = parseLong(headers.getFirst("X-RateLimit-Remaining"), UNKNOWN);
+            long headerReset = parseLong(headers.getFirst("X-RateLimit-Reset"), 0) * 1000;
+            if (headerRemaining == UNKNOWN) {
+                return;
+            }
+            if (headerReset > resetAtMillis || remaining == UNKNOWN) {
+                // New window
+                remaining = headerRemaining;
+                resetAtMillis = headerReset;
+            } else if (headerReset == resetAtMillis) {
+                // Responses of concurrent requests arrive out of order; the lowest count is the latest
+                remaining = Math.min(remaining, headerRemaining);
+            }
+            if (headerLimit != UNKNOWN) {
+                limit = headerLimit;
+            }
+            notifyAll();
+        }
+
+        synchronized void blockUntil(long untilMillis) {
+            blockedUntilMillis = Math.max(blockedUntilMillis, untilMillis);
+            notifyAll();
+        }
+
+        private void refillIfReset(long now) {
+            if (resetAtMillis > 0 && now >= resetAtMillis) {
+                // Real level comes with the next response
+                remaining = limit;
+                resetAtMillis = 0;
+            }
+        }
+
+        private boolean admits(Priority priority) {
+            if (remaining == UNKNOWN || limit == UNKNOWN) {
+                return true;
+            }
+            return remaining > Math.ceil(limit * reserve(priority));
+        }
+
+        private double reserve(Priority priority) {
+            return switch (priority) {
+                case INTERACTIVE -> 0;
+                case WEBHOOK -> webhookReserve;
+                case BACKFILL -> backfillReserve;
+            };
+        }
+
+        private boolean higherPriorityWaiting(Priority priority) {
+            for (int p = 0; p < priority.ordinal(); p++) {
+                if (waiting[p] > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized BucketStats stats(String scope) {
+            Map<Priority, Integer> waitingByPriority = new java.util.EnumMap<>(Priority.class);
+            Map<Priority, Long> deferredByPriority = new java.util.EnumMap<>(Priority.class);
+            for (Priority p : Priority.values()) {
+                waitingByPriority.put(p, waiting[p.ordinal()]);
+                deferredByPriority.put(p, deferred[p.ordinal()]);
+            }
+            return new BucketStats(scope, limit, remaining,
+                    resetAtMillis > 0 ? Instant.ofEpochMilli(resetAtMillis) : null,
+                    blockedUntilMillis > System.currentTimeMillis() ? Instant.ofEpochMilli(blockedUntilMillis) : null,
+                    waitingByPriority, deferredByPriority, waitTimeouts);
+        }
+    }
+
+    /**
+     * @param remaining Requests left in the current window (-1 until the first response)
+     * @param deferred Requests that had to wait, per priority class
+     * @param waitTimeouts Requests sent anyway after waiting their class's maximum
+     */
+    public record BucketStats(
+            String scope,
+            long limit,
+            long remaining,
+            Instant resetAt,
+            Instant blockedUntil,
+            Map<Priority, Integer> waiting,
+            Map<Priority, Long> deferred,
+            long waitTimeouts
+    ) {}
+}
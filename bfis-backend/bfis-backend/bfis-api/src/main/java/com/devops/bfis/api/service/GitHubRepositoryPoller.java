@@ -0,0 +1,263 @@
+package com.devops.bfis.api.service;
+
+import com.devops.bfis.api.dto.GitHubWorkflowRun;
+import com.devops.bfis.api.service.GitHubActionsIngestService.RunOutcome;
+import com.devops.bfis.api.service.GitHubActionsIngestService.RunsPage;
+import com.devops.bfis.core.domain.TrackedRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Periodic polling of every tracked repository for new workflow runs
+ *
+ * Covers lost webhooks without anyone calling /api/github/ingest-actions.
+ * Each repository has its own interval:
+ * - a poll that ingests new runs, or sees runs still in progress, resets
+ *   it to min-interval
+ * - a poll without changes doubles it, up to max-interval
+ * Intervals get +-10% jitter so repositories do not fall into lockstep.
+ *
+ * A ticker hands due repositories to a pool of `workers` threads; a
+ * repository is never polled twice at once. Polls request the same first
+ * page of /actions/runs every time, so an unchanged listing is answered
+ * with 304 from GitHubApiClient's conditional cache and does not count
+ * against the rate limit. Further pages are only fetched while every run
+ * on a page is new. Polls run in the WEBHOOK rate-limit class, ahead of
+ * backfills.
+ */
+@Service
+@Slf4j
+public class GitHubRepositoryPoller {
+
+    private final GitHubActionsIngestService actionsIngestService;
+    private final TrackedRepositoryStore repoStore;
+    private final GitHubInstallationStore installationStore;
+    private final GitHubInstallationTokenService tokenService;
+    private final boolean enabled;
+    private final Duration tick;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final int perPage;
+    private final int maxPages;
+    private final ScheduledExecutorService executor;
+
+    // Key: owner/repo
+    private final Map<String, RepoState> states = new ConcurrentHashMap<>();
+
+    public GitHubRepositoryPoller(
+            GitHubActionsIngestService actionsIngestService,
+            TrackedRepositoryStore repoStore,
+            GitHubInstallationStore installationStore,
+            GitHubInstallationTokenService tokenService,
+            @Value("${bfis.github.poll.enabled:true}") boolean enabled,
+            @Value("${bfis.github.poll.tick:PT15S}") Duration tick,
+            @Value("${bfis.github.poll.min-interval:PT1M}") Duration minInterval,
+            @Value("${bfis.github.poll.max-interval:PT1H}") Duration maxInterval,
+            @Value("${bfis.github.poll.workers:2}") int workers,
+            @Value("${bfis.github.poll.per-page:30}") int perPage,
+            @Value("${bfis.github.poll.max-pages:3}") int maxPages
+    ) {
+        this.actionsIngestService = actionsIngestService;
+        this.repoStore = repoStore;
+        this.installationStore = installationStore;
+        this.tokenService = tokenService;
+        this.enabled = enabled;
+        this.tick = tick;
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval.compareTo(minInterval) < 0 ? minInterval : maxInterval;
+        this.perPage = Math.max(1, Math.min(perPage, 100));
+        this.maxPages = Math.max(maxPages, 1);
+
+        AtomicInteger threadIds = new AtomicInteger();
+        // One extra thread for the ticker
+        this.executor = Executors.newScheduledThreadPool(Math.max(workers, 1) + 1, r -> {
+            Thread t = new Thread(r, "bfis-poller-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            executor.scheduleWithFixedDelay(this::tick, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+            log.info("Polling tracked repositories every {}..{}", minInterval, maxInterval);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Per-repository poll state, soonest due first
+     */
+    public List<PollStats> getStats() {
+        List<PollStats> stats = new ArrayList<>();
+        states.forEach((name, state) -> stats.add(state.stats(name)));
+        stats.sort((a, b) -> a.nextPollAt().compareTo(b.nextPollAt()));
+        return stats;
+    }
+
+    private void tick() {
+        try {
+            if (installationStore.getLatestInstallationId() == null) {
+                return;
+            }
+            Instant now = Instant.now();
+            for (TrackedRepository repo : repoStore.getAll()) {
+                String name = repo.getOwner() + "/" + repo.getRepoName();
+                // New repositories are due right away
+                RepoState state = states.computeIfAbsent(name, n -> new RepoState(minInterval, now));
+                if (state.claimIfDue(now)) {
+                    executor.execute(() -> poll(repo.getOwner(), repo.getRepoName(), state));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Repository poll tick failed", e);
+        }
+    }
+
+    private void poll(String owner, String repo, RepoState state) {
+        boolean active = false;
+        try {
+            String installationId = installationStore.getLatestInstallationId();
+            if (installationId == null) {
+                return;
+            }
+            GitHubApiClient.Auth auth = GitHubApiClient.Auth.installation(installationId,
+                    tokenService.getInstallationAccessToken(installationId))
+                    .withPriority(GitHubRateLimiter.Priority.WEBHOOK);
+
+            int ingested = 0;
+            for (int page = 1; page <= maxPages; page++) {
+                RunsPage runsPage = actionsIngestService.fetchWorkflowRunsPage(owner, repo, auth, null, perPage, page);
+                if (runsPage == null) {
+                    break;
+                }
+                List<RunOutcome> outcomes = actionsIngestService.ingestWorkflowRuns(owner, repo, auth,
+                        runsPage.runs(), new HashMap<>());
+                int newRuns = (int) outcomes.stream().filter(o -> o == RunOutcome.INGESTED).count();
+                ingested += newRuns;
+                if (hasRunInProgress(runsPage.runs())) {
+                    active = true;
+                }
+                // Older pages can only hold new runs if this whole page was new
+                if (newRuns < perPage || runsPage.runs().size() < perPage) {
+                    break;
+                }
+            }
+            if (ingested > 0) {
+                active = true;
+                log.info("Poll of {}/{} ingested {} new runs", owner, repo, ingested);
+            }
+            state.recordPoll(ingested);
+        } catch (Exception e) {
+            state.recordError();
+            log.warn("Poll of {}/{} failed: {}", owner, repo, e.getMessage());
+        } finally {
+            state.release(active ? minInterval : next(state.interval()));
+        }
+    }
+
+    private Duration next(Duration interval) {
+        Duration doubled = interval.multipliedBy(2);
+        return doubled.compareTo(maxInterval) > 0 ? maxInterval : doubled;
+    }
+
+    private static boolean hasRunInProgress(List<GitHubWorkflowRun> runs) {
+        for (GitHubWorkflowRun run : runs) {
+            if (run != null && run.conclusion() == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class RepoState {
+        private Duration interval;
+        private Instant nextPollAt;
+        private Instant lastPollAt;
+        private Instant lastNewRunAt;
+        private boolean polling;
+        private long polls;
+        private long runsIngested;
+        private long errors;
+
+        RepoState(Duration interval, Instant nextPollAt) {
+            this.interval = interval;
+            this.nextPollAt = nextPollAt;
+        }
+
+        synchronized boolean claimIfDue(Instant now) {
+            if (polling || now.isBefore(nextPollAt)) {
+                return false;
+            }
+            polling = true;
+            return true;
+        }
+
+        synchronized Duration interval() {
+            return interval;
+        }
+
+        synchronized void recordPoll(int ingested) {
+            polls++;
+            lastPollAt = Instant.now();
+            if (ingested > 0) {
+                runsIngested += ingested;
+                lastNewRunAt = lastPollAt;
+            }
+        }
+
+        synchronized void recordError() {
+            errors++;
+        }
+
+        synchronized void release(Duration nextInterval) {
+            interval = nextInterval;
+            long jitter = nextInterval.toMillis() / 10;
+            long delay = nextInterval.toMillis() + (jitter > 0 ? ThreadLocalRandom.current().nextLong(-jitter, jitter + 1) : 0);
+            nextPollAt = Instant.now().plusMillis(delay);
+            polling = false;
+        }
+
+        synchronized PollStats stats(String repositoryName) {
+            return new PollStats(repositoryName, interval, nextPollAt, lastPollAt, lastNewRunAt,
+                    polling, polls, runsIngested, errors);
+        }
+    }
+
+    /**
+     * @param interval Current poll interval (shrinks with activity, grows while quiet)
+     * @param lastNewRunAt Last poll that found new runs
+     */
+    public record PollStats(
+            String repositoryName,
+            Duration interval,
+            Instant nextPollAt,
+            Instant lastPollAt,
+            Instant lastNewRunAt,
+            boolean polling,
+            long polls,
+            long runsIngested,
+            long errors
+    ) {}
+}
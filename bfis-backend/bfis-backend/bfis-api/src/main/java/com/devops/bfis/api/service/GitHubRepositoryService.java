@@ -5,9 +5,7 @@ import com.devops.bfis.api.dto.GitHubRepositoryResponse;
 import com.devops.bfis.core.domain.TrackedRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -26,9 +24,7 @@ public class GitHubRepositoryService {
     private final GitHubInstallationTokenService tokenService;
     private final GitHubInstallationStore installationStore;
     private final TrackedRepositoryStore repoStore;
-    private final RestTemplate restTemplate = new RestTemplate();
-    
-    private static final String GITHUB_API_BASE = "https://api.github.com";
+    private final GitHubApiClient apiClient;
     
     /**
      * Fetch all repositories accessible to the GitHub App installation
@@ -49,30 +45,20 @@ public class GitHubRepositoryService {
             // Get installation access token
             String accessToken = tokenService.getInstallationAccessToken(installationId);
             
-            // Build request
-            String url = GITHUB_API_BASE + "/installation/repositories";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Bearer " + accessToken);
-            headers.set("Accept", "application/vnd.github+json");
-            headers.set("X-GitHub-Api-Version", "2022-11-28");
-            
-            HttpEntity<String> request = new HttpEntity<>(headers);
-            
-            // Make request
-            ResponseEntity<GitHubInstallationRepositoriesResponse> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    request,
+            // Conditional request: unchanged repository lists are served from the cache
+            GitHubInstallationRepositoriesResponse response = apiClient.get(
+                    GitHubApiClient.GITHUB_API_BASE + "/installation/repositories",
+                    null,
+                    GitHubApiClient.Auth.installation(installationId, accessToken),
                     GitHubInstallationRepositoriesResponse.class
             );
             
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                List<GitHubRepositoryResponse> repos = response.getBody().getRepositories();
+            if (response != null && response.getRepositories() != null) {
+                List<GitHubRepositoryResponse> repos = response.getRepositories();
                 log.info("Fetched {} repositories from GitHub App installation", repos.size());
                 return repos;
             } else {
-                log.error("Failed to fetch repositories: {}", response.getStatusCode());
+                log.error("Failed to fetch repositories: empty response");
                 return new ArrayList<>();
             }
             
@@ -0,0 +1,127 @@
+package com.devops.bfis.api.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pools for fanning out independent GitHub API calls
+ *
+ * Per-run lookups (jobs endpoint, job logs) of a listing page run
+ * concurrently instead of one round-trip after another. How many of one
+ * fan-out are in flight follows the scope's rate-limit budget
+ * (GitHubRateLimiter.admissible: what is left above the priority's
+ * reserve), re-read whenever a call completes, and never exceeds
+ * bfis.github.max-concurrent-requests. GitHub's secondary rate limits
+ * penalize many concurrent requests per installation, so the cap stays
+ * small. Callers must not fan out from inside a task.
+ *
+ * Each priority class has its own pool: tasks wait for rate-limit budget
+ * (GitHubRateLimiter.acquire) on pool threads, and a backfill may wait for
+ * hours. With one shared pool those waits would occupy every thread and
+ * queue interactive calls behind them. Threads are started on first use.
+ *
+ * The caller waits at most bfis.github.fan-out-timeout for all calls; past
+ * it the unfinished calls are cancelled and the fan-out fails, so a
+ * deferred backfill never holds the calling thread for the whole wait.
+ */
+@Component
+public class GitHubRequestExecutor {
+
+    private final Map<GitHubRateLimiter.Priority, ExecutorService> executors = new EnumMap<>(GitHubRateLimiter.Priority.class);
+    private final GitHubRateLimiter rateLimiter;
+    private final int maxConcurrentRequests;
+    private final Duration timeout;
+
+    public GitHubRequestExecutor(
+            GitHubRateLimiter rateLimiter,
+            @Value("${bfis.github.max-concurrent-requests:8}") int maxConcurrentRequests,
+            @Value("${bfis.github.fan-out-timeout:PT2M}") Duration timeout
+    ) {
+        this.rateLimiter = rateLimiter;
+        this.maxConcurrentRequests = Math.max(maxConcurrentRequests, 1);
+        this.timeout = timeout;
+        for (GitHubRateLimiter.Priority priority : GitHubRateLimiter.Priority.values()) {
+            String prefix = "bfis-github-" + priority.name().toLowerCase(Locale.ROOT) + "-";
+            AtomicInteger threadIds = new AtomicInteger();
+            executors.put(priority, Executors.newFixedThreadPool(this.maxConcurrentRequests, r -> {
+                Thread t = new Thread(r, prefix + threadIds.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ExecutorService::shutdownNow);
+    }
+
+    /**
+     * Run the calls concurrently and wait for all of them
+     *
+     * @param auth Credentials the calls are made with (rate-limit scope and priority)
+     * @return Results in the order of the calls
+     * @throws ResourceAccessException if the calls did not all complete within the fan-out timeout
+     */
+    public <T> List<T> invokeAll(GitHubApiClient.Auth auth, List<Supplier<T>> calls) {
+        if (calls.isEmpty()) {
+            return List.of();
+        }
+        ExecutorCompletionService<Integer> completion = new ExecutorCompletionService<>(executors.get(auth.priority()));
+        List<Future<Integer>> futures = new ArrayList<>(calls.size());
+        @SuppressWarnings("unchecked")
+        T[] results = (T[]) new Object[calls.size()];
+        long deadline = System.nanoTime() + timeout.toNanos();
+        int inFlight = 0;
+        try {
+            while (futures.size() < calls.size() || inFlight > 0) {
+                int permits = rateLimiter.admissible(auth.scope(), auth.priority(), maxConcurrentRequests);
+                while (futures.size() < calls.size() && inFlight < permits) {
+                    int index = futures.size();
+                    Supplier<T> call = calls.get(index);
+                    futures.add(completion.submit(() -> {
+                        results[index] = call.get();
+                        return index;
+                    }));
+                    inFlight++;
+                }
+                Future<Integer> done = completion.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new ResourceAccessException("GitHub calls did not complete within " + timeout
+                            + " (" + (calls.size() - futures.size() + inFlight) + " of " + calls.size() + " outstanding)");
+                }
+                inFlight--;
+                done.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting for GitHub calls");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+        } finally {
+            // No-op for completed calls; interrupts calls still waiting for budget
+            futures.forEach(future -> future.cancel(true));
+        }
+        return Arrays.asList(results);
+    }
+}
@@ -1,8 +1,8 @@
 package com.devops.bfis.api.service;
 
+import com.devops.bfis.api.dto.GitHubWorkflowRun;
 import com.devops.bfis.api.dto.GitHubWorkflowRunEvent;
 import com.devops.bfis.core.domain.Build;
-import com.devops.bfis.core.domain.Failure;
 import com.devops.bfis.core.enums.BuildStatus;
 import com.devops.bfis.core.enums.FailureType;
 import lombok.RequiredArgsConstructor;
@@ -12,7 +12,6 @@ import org.springframework.stereotype.Service;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
-import java.util.UUID;
 
 /**
  * Service to convert GitHub webhook events into BFIS domain models
@@ -21,8 +20,8 @@ import java.util.UUID;
 @RequiredArgsConstructor
 @Slf4j
 public class GitHubWebhookProcessor {
-    private final InMemoryDataStore dataStore;
     private final TrackedRepositoryStore repoStore;
+    private final IngestService ingestService;
     
     /**
      * Process workflow_run completed event
@@ -34,9 +33,14 @@ public class GitHubWebhookProcessor {
             return;
         }
         
-        GitHubWorkflowRunEvent.WorkflowRun run = event.getWorkflowRun();
+        GitHubWorkflowRun run = event.getWorkflowRun();
         GitHubWorkflowRunEvent.Repository repo = event.getRepository();
         
+        if (run == null || run.id() == null || repo == null || repo.getFullName() == null) {
+            log.warn("Ignoring workflow_run event without run or repository");
+            return;
+        }
+        
         // Verify repository is tracked
         String[] parts = repo.getFullName().split("/");
         if (parts.length != 2 || !repoStore.isRegistered(parts[0], parts[1])) {
@@ -45,41 +49,39 @@ public class GitHubWebhookProcessor {
         }
         
         // Map GitHub conclusion to BFIS BuildStatus
-        BuildStatus status = mapConclusion(run.getConclusion());
+        BuildStatus status = mapConclusion(run.conclusion());
         
         // Calculate duration
-        int durationSeconds = calculateDuration(run.getCreatedAt(), run.getUpdatedAt());
+        int durationSeconds = calculateDuration(run.createdAt(), run.updatedAt());
         
         // Parse timestamp
-        Instant triggeredAt = parseTimestamp(run.getCreatedAt());
+        Instant triggeredAt = parseTimestamp(run.createdAt());
         
         // Create Build
         Build build = Build.builder()
-                .id(String.valueOf(run.getId()))
+                .id(IngestService.runBuildId(repo.getFullName(), run.id()))
                 .repositoryName(repo.getFullName())
-                .branch(run.getHeadBranch())
+                .branch(run.headBranch())
                 .status(status)
                 .durationSeconds(durationSeconds)
                 .triggeredAt(triggeredAt)
-                .commitHash(run.getHeadSha())
+                .commitHash(run.headSha())
+                .runId(run.id())
+                .runAttempt(run.runAttempt())
                 .build();
         
-        dataStore.addBuild(build);
+        if (!ingestService.recordBuild(build)) {
+            log.info("Ignoring already ingested run: repo={}, run={}, attempt={}",
+                    repo.getFullName(), run.id(), run.runAttempt());
+            return;
+        }
         log.info("Ingested build from GitHub: repo={}, status={}, duration={}s", 
                 repo.getFullName(), status, durationSeconds);
         
-        // If failed, create Failure
+        // If failed, record the failure occurrence (deduplicated by fingerprint)
         if (status == BuildStatus.FAILED) {
-            Failure failure = Failure.builder()
-                    .id(UUID.randomUUID().toString())
-                    .buildId(build.getId())
-                    .failureType(FailureType.TEST) // Default, could be enhanced
-                    .errorMessage("GitHub workflow failed: " + run.getName())
-                    .frequencyCount(1)
-                    .firstSeenAt(triggeredAt)
-                    .lastSeenAt(triggeredAt)
-                    .build();
-            dataStore.addFailure(failure);
+            ingestService.recordFailure(build, FailureType.TEST, false, // Default, could be enhanced
+                    "GitHub workflow failed: " + run.name());
         }
     }
     
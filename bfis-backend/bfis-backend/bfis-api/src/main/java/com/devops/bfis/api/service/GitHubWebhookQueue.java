@@ -0,0 +1,235 @@
+package com.devops.bfis.api.service;
+
+import com.devops.bfis.api.dto.GitHubWorkflowRunEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-process queue between the webhook endpoint and GitHubWebhookProcessor
+ *
+ * The endpoint only verifies the signature and enqueues the raw body bytes;
+ * the workers parse them with Jackson directly (no String decoding) and
+ * process the event on a fixed pool of threads.
+ * Redeliveries (same X-GitHub-Delivery id) are dropped before any of that;
+ * the id of a delivery that is rejected or fails is forgotten again, so its
+ * redelivery is processed.
+ *
+ * Backpressure when the queue is full (bfis.webhook.queue.overflow):
+ * - reject (default): the delivery is refused and the endpoint answers 503
+ *   with Retry-After; it can be redelivered from the GitHub App settings.
+ *   Keeps the endpoint fast during bursts
+ * - caller-runs: the delivery is processed on the request thread, nothing
+ *   is lost but responses slow down to the processing time
+ *
+ * Queued deliveries are answered 202 before they are processed, so failures
+ * cannot reach GitHub; they are counted in the bfis.webhook.deliveries
+ * metric (outcome=failed, /actuator/metrics) and in getStats(), with the
+ * last failed delivery id for redelivery.
+ */
+@Service
+@Slf4j
+public class GitHubWebhookQueue {
+
+    public enum OverflowPolicy {
+        CALLER_RUNS,
+        REJECT
+    }
+
+    public enum Outcome {
+        QUEUED,
+        PROCESSED_INLINE,
+        FAILED_INLINE,
+        DUPLICATE,
+        REJECTED
+    }
+
+    private final GitHubWebhookProcessor webhookProcessor;
+    private final ObjectMapper objectMapper;
+    private final WebhookDeliveryDeduplicator deduplicator;
+    private final ThreadPoolExecutor executor;
+    private final OverflowPolicy overflowPolicy;
+    private final int capacity;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder processedInline = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+    private final LongAdder totalProcessingNanos = new LongAdder();
+    private volatile String lastFailedDeliveryId;
+    private volatile Instant lastFailureAt;
+
+    public GitHubWebhookQueue(
+            GitHubWebhookProcessor webhookProcessor,
+            ObjectMapper objectMapper,
+            WebhookDeliveryDeduplicator deduplicator,
+            MeterRegistry meterRegistry,
+            @Value("${bfis.webhook.queue.capacity:1000}") int capacity,
+            @Value("${bfis.webhook.queue.workers:4}") int workers,
+            @Value("${bfis.webhook.queue.overflow:reject}") String overflow
+    ) {
+        this.webhookProcessor = webhookProcessor;
+        this.objectMapper = objectMapper;
+        this.deduplicator = deduplicator;
+        this.capacity = Math.max(capacity, 1);
+        this.overflowPolicy = OverflowPolicy.valueOf(overflow.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        AtomicInteger workerIds = new AtomicInteger();
+        int threads = Math.max(workers, 1);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.capacity),
+                r -> {
+                    Thread t = new Thread(r, "bfis-webhook-" + workerIds.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        registerCounter(meterRegistry, "queued", accepted);
+        registerCounter(meterRegistry, "processed-inline", processedInline);
+        registerCounter(meterRegistry, "rejected", rejected);
+        registerCounter(meterRegistry, "duplicate", duplicates);
+        registerCounter(meterRegistry, "processed", processed);
+        registerCounter(meterRegistry, "failed", failed);
+        Gauge.builder("bfis.webhook.queue.depth", executor, e -> e.getQueue().size())
+                .description("Webhook deliveries waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    private static void registerCounter(MeterRegistry registry, String outcome, LongAdder counter) {
+        FunctionCounter.builder("bfis.webhook.deliveries", counter, LongAdder::sum)
+                .description("workflow_run webhook deliveries by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Dropping {} queued webhook deliveries on shutdown", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Hand a verified workflow_run delivery to the workers
+     */
+    public Outcome submit(String deliveryId, byte[] payload) {
+        if (deliveryId != null && !deduplicator.markIfNew(deliveryId)) {
+            duplicates.increment();
+            log.info("Dropping redelivered webhook: {}", deliveryId);
+            return Outcome.DUPLICATE;
+        }
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> process(deliveryId, payload, enqueuedAt));
+            accepted.increment();
+            return Outcome.QUEUED;
+        } catch (RejectedExecutionException e) {
+            if (overflowPolicy == OverflowPolicy.CALLER_RUNS && !executor.isShutdown()) {
+                log.warn("Webhook queue full ({}), processing delivery {} inline", capacity, deliveryId);
+                processedInline.increment();
+                return process(deliveryId, payload, enqueuedAt) ? Outcome.PROCESSED_INLINE : Outcome.FAILED_INLINE;
+            }
+            rejected.increment();
+            if (deliveryId != null) {
+                deduplicator.forget(deliveryId);
+            }
+            log.warn("Webhook queue full ({}), rejecting delivery {}", capacity, deliveryId);
+            return Outcome.REJECTED;
+        }
+    }
+
+    /**
+     * @return false if the delivery failed
+     */
+    private boolean process(String deliveryId, byte[] payload, long enqueuedAt) {
+        long start = System.nanoTime();
+        long wait = start - enqueuedAt;
+        totalWaitNanos.add(wait);
+        maxWaitNanos.accumulate(wait);
+        try {
+            GitHubWorkflowRunEvent event = objectMapper.readValue(payload, GitHubWorkflowRunEvent.class);
+            webhookProcessor.processWorkflowRunCompleted(event);
+            processed.increment();
+            log.info("Successfully processed workflow_run event for delivery: {}", deliveryId);
+            return true;
+        } catch (Exception e) {
+            failed.increment();
+            lastFailedDeliveryId = deliveryId;
+            lastFailureAt = Instant.now();
+            if (deliveryId != null) {
+                deduplicator.forget(deliveryId);
+            }
+            log.error("Failed to process workflow_run event for delivery: {}", deliveryId, e);
+            return false;
+        } finally {
+            totalProcessingNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Queue depth, throughput and latency counters
+     */
+    public QueueStats getStats() {
+        long done = processed.sum() + failed.sum();
+        return new QueueStats(
+                executor.getQueue().size(),
+                capacity,
+                executor.getActiveCount(),
+                executor.getMaximumPoolSize(),
+                overflowPolicy.name().toLowerCase(Locale.ROOT).replace('_', '-'),
+                accepted.sum(),
+                processedInline.sum(),
+                rejected.sum(),
+                duplicates.sum(),
+                deduplicator.size(),
+                processed.sum(),
+                failed.sum(),
+                lastFailedDeliveryId,
+                lastFailureAt,
+                done == 0 ? 0 : totalWaitNanos.sum() / done / 1_000_000,
+                maxWaitNanos.get() / 1_000_000,
+                done == 0 ? 0 : totalProcessingNanos.sum() / done / 1_000_000
+        );
+    }
+
+    public record QueueStats(
+            int depth,
+            int capacity,
+            int activeWorkers,
+            int workers,
+            String overflowPolicy,
+            long accepted,
+            long processedInline,
+            long rejected,
+            long duplicates,
+            int trackedDeliveryIds,
+            long processed,
+            long failed,
+            String lastFailedDeliveryId,
+            Instant lastFailureAt,
+            long avgWaitMillis,
+            long maxWaitMillis,
+            long avgProcessingMillis
+    ) {}
+}
@@ -1,56 +1,273 @@
 package com.devops.bfis.api.service;
 
+import com.devops.bfis.analyzer.interval.FailureWindowIndex;
+import com.devops.bfis.analyzer.repository.FailureUpdate;
+import com.devops.bfis.analyzer.repository.ReclassifiableFailureStore;
 import com.devops.bfis.core.domain.Build;
 import com.devops.bfis.core.domain.Failure;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @Component
-public class InMemoryDataStore {
-    // Key: repositoryName (owner/repo), Value: List of builds/failures
+public class InMemoryDataStore implements ReclassifiableFailureStore {
+    // Key: repositoryName (owner/repo), Value: List of builds; guarded by itself
     private final Map<String, List<Build>> buildsByRepo = new HashMap<>();
-    private final Map<String, List<Failure>> failuresByRepo = new HashMap<>();
+    // Key: repositoryName#runId, Value: stored build of the latest attempt; guarded by buildsByRepo
+    private final Map<String, Build> buildsByRun = new HashMap<>();
+    // Key: build id, Value: repositoryName of the build; guarded by buildsByRepo
+    private final Map<String, String> repositoryByBuildId = new HashMap<>();
+    // Key: failure fingerprint, Value: one aggregated Failure per distinct problem
+    // Replaced as a whole by applyUpdates; upserts hold the read lock, the swap the write lock
+    private volatile Map<String, Failure> failuresByFingerprint = new ConcurrentHashMap<>();
+    private final ReadWriteLock failuresLock = new ReentrantReadWriteLock();
+    // Interval index over [firstSeenAt, lastSeenAt] of every failure, guarded by itself
+    private final FailureWindowIndex failureWindows = new FailureWindowIndex();
 
     public List<Build> getBuilds() {
         List<Build> all = new ArrayList<>();
-        for (List<Build> builds : buildsByRepo.values()) {
-            all.addAll(builds);
+        synchronized (buildsByRepo) {
+            for (List<Build> builds : buildsByRepo.values()) {
+                all.addAll(builds);
+            }
         }
         return all;
     }
 
     public List<Failure> getFailures() {
-        List<Failure> all = new ArrayList<>();
-        for (List<Failure> failures : failuresByRepo.values()) {
-            all.addAll(failures);
+        return new ArrayList<>(failuresByFingerprint.values());
+    }
+
+    /**
+     * Failures whose [firstSeenAt, lastSeenAt] window overlaps [from, to], ordered by firstSeenAt
+     * O(k log n) worst case via the interval index instead of a scan over all failures
+     */
+    public List<Failure> getFailuresActiveBetween(Instant from, Instant to) {
+        List<String> fingerprints;
+        synchronized (failureWindows) {
+            fingerprints = failureWindows.findOverlapping(from, to);
+        }
+        Map<String, Failure> failures = failuresByFingerprint;
+        List<Failure> result = new ArrayList<>(fingerprints.size());
+        for (String fingerprint : fingerprints) {
+            Failure failure = failures.get(fingerprint);
+            if (failure != null) {
+                result.add(failure);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Failure> findAll() {
+        return getFailures();
+    }
+
+    /**
+     * Apply re-classification results to the live failures
+     *
+     * An update applies only if the expected instance is still stored. All
+     * applied updates are published with one swap of the failure map, so
+     * readers see either none or all of them; upserts wait for the swap.
+     * Every upsert stores a new instance, so a failure that saw another
+     * occurrence since it was read is skipped and no count is lost.
+     *
+     * @return Number of updates applied
+     */
+    @Override
+    public int applyUpdates(List<FailureUpdate> updates) {
+        failuresLock.writeLock().lock();
+        try {
+            Map<String, Failure> next = new ConcurrentHashMap<>(failuresByFingerprint);
+            int applied = 0;
+            for (FailureUpdate update : updates) {
+                Failure expected = update.expected();
+                Failure existing = next.get(expected.getFingerprint());
+                if (existing == expected) {
+                    next.put(expected.getFingerprint(), update.updated());
+                    applied++;
+                }
+            }
+            if (applied > 0) {
+                failuresByFingerprint = next;
+            }
+            return applied;
+        } finally {
+            failuresLock.writeLock().unlock();
+        }
+    }
+
+    public Failure getFailure(String fingerprint) {
+        return failuresByFingerprint.get(fingerprint);
+    }
+
+    /**
+     * Store a build; idempotent for builds carrying a run id
+     *
+     * A build whose repository and run id are already stored replaces the
+     * stored one only if its run attempt is newer (keeping the stored build
+     * id); the same or an older attempt is ignored.
+     *
+     * @return false if the build was ignored as already stored
+     */
+    public boolean upsertBuild(Build build) {
+        synchronized (buildsByRepo) {
+            return upsertBuildLocked(build);
+        }
+    }
+
+    /**
+     * Upsert a batch of builds under a single lock acquisition
+     *
+     * @return per build, whether it was stored (see upsertBuild)
+     */
+    public boolean[] upsertBuilds(List<Build> builds) {
+        boolean[] stored = new boolean[builds.size()];
+        synchronized (buildsByRepo) {
+            for (int i = 0; i < stored.length; i++) {
+                stored[i] = upsertBuildLocked(builds.get(i));
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Whether this attempt (or a newer one) of a run is already stored
+     */
+    public boolean containsRun(String repositoryName, long runId, Integer runAttempt) {
+        synchronized (buildsByRepo) {
+            Build existing = buildsByRun.get(runKey(repositoryName, runId));
+            return existing != null && attempt(existing) >= (runAttempt != null ? runAttempt : 1);
+        }
+    }
+
+    /**
+     * Whether a build with this id is stored for the repository
+     */
+    public boolean containsBuild(String repositoryName, String buildId) {
+        synchronized (buildsByRepo) {
+            return repositoryName != null && repositoryName.equals(repositoryByBuildId.get(buildId));
         }
-        return all;
     }
 
-    public void addBuild(Build build) {
-        String repo = build.getRepositoryName();
-        buildsByRepo.computeIfAbsent(repo, k -> new ArrayList<>()).add(build);
+    private boolean upsertBuildLocked(Build build) {
+        List<Build> builds = buildsByRepo.computeIfAbsent(build.getRepositoryName(), k -> new ArrayList<>());
+        if (build.getRunId() == null) {
+            builds.add(build);
+            repositoryByBuildId.put(build.getId(), build.getRepositoryName());
+            return true;
+        }
+        String key = runKey(build.getRepositoryName(), build.getRunId());
+        Build existing = buildsByRun.get(key);
+        if (existing == null) {
+            builds.add(build);
+            buildsByRun.put(key, build);
+            repositoryByBuildId.put(build.getId(), build.getRepositoryName());
+            return true;
+        }
+        if (attempt(build) <= attempt(existing)) {
+            return false;
+        }
+        build.setId(existing.getId());
+        // Re-runs are rare; a linear scan of the repository's builds is fine
+        for (int i = builds.size() - 1; i >= 0; i--) {
+            if (builds.get(i) == existing) {
+                builds.set(i, build);
+                break;
+            }
+        }
+        buildsByRun.put(key, build);
+        return true;
+    }
+
+    static String runKey(String repositoryName, long runId) {
+        return repositoryName + "#" + runId;
     }
 
-    public void addFailure(Failure failure) {
-        // Find repo from buildId if needed, or require Failure to have repositoryName if you extend Failure
-        // For now, assume buildId is unique and not used for repo lookup
-        // This demo stores by a dummy repo key, but you can extend Failure to include repositoryName for real use
-        failuresByRepo.computeIfAbsent("all", k -> new ArrayList<>()).add(failure);
+    private static int attempt(Build build) {
+        return build.getRunAttempt() != null ? build.getRunAttempt() : 1;
+    }
+
+    /**
+     * Insert a new failure pattern or replace the existing one by a copy with
+     * the occurrence recorded; stored instances are never modified.
+     * The whole read-modify-write runs inside ConcurrentHashMap.compute, so
+     * concurrent ingests of the same fingerprint never lose a count.
+     * The failure's activity window is re-indexed in the same step.
+     *
+     * @return the stored (aggregated) failure
+     */
+    public Failure upsertFailure(Failure occurrence) {
+        failuresLock.readLock().lock();
+        try {
+            synchronized (failureWindows) {
+                return upsertFailureLocked(occurrence);
+            }
+        } finally {
+            failuresLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * upsertFailure for a batch of occurrences, taking each lock once
+     */
+    public void upsertFailures(List<Failure> occurrences) {
+        failuresLock.readLock().lock();
+        try {
+            synchronized (failureWindows) {
+                for (Failure occurrence : occurrences) {
+                    upsertFailureLocked(occurrence);
+                }
+            }
+        } finally {
+            failuresLock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock and failureWindows (always taken before the map's bin locks)
+    private Failure upsertFailureLocked(Failure occurrence) {
+        return failuresByFingerprint.compute(occurrence.getFingerprint(), (fingerprint, existing) -> {
+            Failure stored = existing == null
+                ? occurrence
+                : existing.recordOccurrence(occurrence.getBuildId(), occurrence.getLastSeenAt());
+            indexWindow(fingerprint, stored);
+            return stored;
+        });
+    }
+
+    private void indexWindow(String fingerprint, Failure failure) {
+        Instant first = failure.getFirstSeenAt() != null ? failure.getFirstSeenAt() : failure.getLastSeenAt();
+        Instant last = failure.getLastSeenAt() != null ? failure.getLastSeenAt() : first;
+        if (first != null) {
+            failureWindows.put(fingerprint, first, last);
+        }
     }
 
     public void clear() {
-        buildsByRepo.clear();
-        failuresByRepo.clear();
+        synchronized (buildsByRepo) {
+            buildsByRepo.clear();
+            buildsByRun.clear();
+            repositoryByBuildId.clear();
+        }
+        failuresLock.writeLock().lock();
+        try {
+            failuresByFingerprint = new ConcurrentHashMap<>();
+        } finally {
+            failuresLock.writeLock().unlock();
+        }
+        synchronized (failureWindows) {
+            failureWindows.clear();
+        }
     }
 
     // Optionally, add per-repo accessors
     public List<Build> getBuildsForRepo(String repositoryName) {
-        return buildsByRepo.getOrDefault(repositoryName, Collections.emptyList());
-    }
-
-    public List<Failure> getFailuresForRepo(String repositoryName) {
-        return failuresByRepo.getOrDefault(repositoryName, Collections.emptyList());
+        synchronized (buildsByRepo) {
+            return new ArrayList<>(buildsByRepo.getOrDefault(repositoryName, Collections.emptyList()));
+        }
     }
 }
@@ -1,68 +1,421 @@
 package com.devops.bfis.api.service;
 
 
+import com.devops.bfis.analyzer.classifier.FailureClassifier;
+import com.devops.bfis.analyzer.cluster.FailureClusterIndex;
+import com.devops.bfis.analyzer.correlation.CommitCorrelationIndex;
+import com.devops.bfis.analyzer.service.FailureFingerprinter;
+import com.devops.bfis.analyzer.testresult.TestResultIndex;
+import com.devops.bfis.analyzer.trending.TrendingFailureIndex;
+import com.devops.bfis.api.dto.BatchIngestResponse;
+import com.devops.bfis.api.dto.FailureCluster;
 import com.devops.bfis.api.dto.IngestRequest;
+import com.devops.bfis.api.dto.TrendingFailure;
 import com.devops.bfis.core.domain.Build;
 import com.devops.bfis.core.domain.Failure;
 import com.devops.bfis.core.enums.BuildStatus;
 import com.devops.bfis.core.enums.FailureType;
+import com.devops.bfis.ingestor.junit.JUnitReportParser;
+import com.devops.bfis.ingestor.junit.JUnitReportSummary;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.devops.bfis.api.service.TrackedRepositoryStore;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class IngestService {
+    // Rejection reasons reported per batch upload
+    private static final int MAX_BATCH_ERRORS = 100;
+
     private final InMemoryDataStore dataStore;
     private final TrackedRepositoryStore repoStore;
+    private final FailureFingerprinter fingerprinter;
+    private final FailureClassifier failureClassifier;
+    private final FailureClusterIndex clusterIndex;
+    private final CommitCorrelationIndex correlationIndex;
+    private final TestResultIndex testResultIndex;
+    private final TrendingFailureIndex trendingIndex;
+    private final JUnitReportParser junitParser = new JUnitReportParser();
+    private final ObjectReader requestReader;
+    private final int batchSize;
+    private final int maxLineBytes;
     private final AtomicInteger buildIdCounter = new AtomicInteger(1000);
 
     @Autowired
-    public IngestService(InMemoryDataStore dataStore, TrackedRepositoryStore repoStore) {
+    public IngestService(InMemoryDataStore dataStore, TrackedRepositoryStore repoStore,
+                         FailureFingerprinter fingerprinter, FailureClassifier failureClassifier,
+                         FailureClusterIndex clusterIndex, CommitCorrelationIndex correlationIndex,
+                         TestResultIndex testResultIndex, TrendingFailureIndex trendingIndex,
+                         ObjectMapper objectMapper,
+                         @Value("${bfis.ingest.batch-size:500}") int batchSize,
+                         @Value("${bfis.ingest.max-line-bytes:65536}") int maxLineBytes) {
         this.dataStore = dataStore;
         this.repoStore = repoStore;
+        this.fingerprinter = fingerprinter;
+        this.failureClassifier = failureClassifier;
+        this.clusterIndex = clusterIndex;
+        this.correlationIndex = correlationIndex;
+        this.testResultIndex = testResultIndex;
+        this.trendingIndex = trendingIndex;
+        // A line is one object: "{...} garbage" is rejected, not half-read
+        this.requestReader = objectMapper.readerFor(IngestRequest.class)
+            .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxLineBytes = Math.max(maxLineBytes, 1024);
     }
 
     public boolean ingestBuild(IngestRequest req) {
-        // Parse owner/repo from repositoryName (format: owner/repo)
-        String[] parts = req.repositoryName != null ? req.repositoryName.split("/") : new String[0];
-        if (parts.length != 2 || !repoStore.isRegistered(parts[0], parts[1])) {
+        if (!isRegistered(req.repositoryName)) {
             return false;
         }
-        String buildId = String.valueOf(buildIdCounter.incrementAndGet());
-        BuildStatus status = parseStatus(req.status);
-        FailureType failureType = parseFailureType(req.failureType);
-        Instant triggeredAt = parseInstant(req.triggeredAt);
+        Build build = toBuild(req);
+        if (recordBuild(build)) {
+            recordFailureOf(build, req);
+        }
+        return true;
+    }
+
+    /**
+     * Stream NDJSON ingest requests (one IngestRequest per line)
+     *
+     * Only the current line is held in memory, at most bfis.ingest.max-line-bytes
+     * of it; longer lines are skipped to their end and rejected. Each line must
+     * hold exactly one JSON object. Valid lines are applied to the
+     * store in batches of bfis.ingest.batch-size, so the locks of the build
+     * and failure stores and of the cluster, trending and correlation indexes
+     * are taken once per batch; repository registration is looked up once
+     * per repository.
+     * Invalid lines are counted and skipped, they do not abort the upload.
+     * Lines for an already stored run (same run id and attempt) are accepted
+     * but counted as unchanged.
+     *
+     * @throws IOException on read errors of the body
+     */
+    public BatchIngestResponse ingestBatch(InputStream ndjson) throws IOException {
+        BatchIngestResponse response = new BatchIngestResponse();
+        Map<String, Boolean> registered = new HashMap<>();
+        List<IngestRequest> pending = new ArrayList<>(batchSize);
+        LineReader reader = new LineReader(new BufferedInputStream(ndjson), maxLineBytes);
+        int lineNumber = 0;
+        int length;
+        while ((length = reader.next()) != LineReader.EOF) {
+            lineNumber++;
+            if (length == LineReader.TOO_LONG) {
+                response.setLines(response.getLines() + 1);
+                reject(response, lineNumber, "line exceeds " + maxLineBytes + " bytes");
+                continue;
+            }
+            if (reader.isBlank(length)) {
+                continue;
+            }
+            response.setLines(response.getLines() + 1);
+            IngestRequest req;
+            try {
+                req = requestReader.readValue(reader.buffer(), 0, length);
+            } catch (JsonProcessingException e) {
+                reject(response, lineNumber, "invalid JSON");
+                continue;
+            }
+            if (req == null || !registered.computeIfAbsent(req.repositoryName, this::isRegistered)) {
+                reject(response, lineNumber, "repository not registered: " + (req != null ? req.repositoryName : null));
+                continue;
+            }
+            pending.add(req);
+            if (pending.size() >= batchSize) {
+                applyBatch(pending, response);
+            }
+        }
+        if (!pending.isEmpty()) {
+            applyBatch(pending, response);
+        }
+        return response;
+    }
+
+    /**
+     * Store a batch of builds and record their failures
+     *
+     * Each store and index is updated once per batch (one lock acquisition)
+     * rather than once per build.
+     */
+    private void applyBatch(List<IngestRequest> requests, BatchIngestResponse response) {
+        List<Build> builds = new ArrayList<>(requests.size());
+        for (IngestRequest req : requests) {
+            builds.add(toBuild(req));
+        }
+        boolean[] stored = dataStore.upsertBuilds(builds);
+        List<Build> accepted = new ArrayList<>(builds.size());
+        List<String> fingerprintByBuild = new ArrayList<>(builds.size());
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (int i = 0; i < builds.size(); i++) {
+            if (!stored[i]) {
+                response.setUnchanged(response.getUnchanged() + 1);
+                continue;
+            }
+            Occurrence occurrence = failureOf(builds.get(i), requests.get(i));
+            accepted.add(builds.get(i));
+            fingerprintByBuild.add(occurrence != null ? occurrence.failure().getFingerprint() : null);
+            if (occurrence != null) {
+                occurrences.add(occurrence);
+            }
+        }
+        recordAll(accepted, fingerprintByBuild, occurrences);
+        response.setAccepted(response.getAccepted() + builds.size());
+        response.setBatches(response.getBatches() + 1);
+        requests.clear();
+    }
+
+    /**
+     * '\n'-terminated lines of a byte stream, read into one reusable buffer of at most maxBytes
+     */
+    private static final class LineReader {
+        static final int EOF = -1;
+        static final int TOO_LONG = -2;
 
-        Build build = Build.builder()
-            .id(buildId)
+        private final InputStream in;
+        private final int maxBytes;
+        private byte[] buffer = new byte[1024];
+
+        LineReader(InputStream in, int maxBytes) {
+            this.in = in;
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * @return Length of the next line in buffer() without its terminator,
+         *         TOO_LONG if it was skipped, or EOF
+         */
+        int next() throws IOException {
+            int length = 0;
+            boolean tooLong = false;
+            int b;
+            while ((b = in.read()) != -1 && b != '\n') {
+                if (tooLong) {
+                    continue;
+                }
+                if (length == maxBytes) {
+                    tooLong = true;
+                    continue;
+                }
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, maxBytes));
+                }
+                buffer[length++] = (byte) b;
+            }
+            if (tooLong) {
+                return TOO_LONG;
+            }
+            if (b == -1 && length == 0) {
+                return EOF;
+            }
+            return length > 0 && buffer[length - 1] == '\r' ? length - 1 : length;
+        }
+
+        byte[] buffer() {
+            return buffer;
+        }
+
+        boolean isBlank(int length) {
+            for (int i = 0; i < length; i++) {
+                if (buffer[i] != ' ' && buffer[i] != '\t' && buffer[i] != '\r') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static void reject(BatchIngestResponse response, int lineNumber, String reason) {
+        response.setRejected(response.getRejected() + 1);
+        if (response.getErrors().size() < MAX_BATCH_ERRORS) {
+            response.getErrors().add("line " + lineNumber + ": " + reason);
+        }
+    }
+
+    private boolean isRegistered(String repositoryName) {
+        // Parse owner/repo from repositoryName (format: owner/repo)
+        String[] parts = repositoryName != null ? repositoryName.split("/") : new String[0];
+        return parts.length == 2 && repoStore.isRegistered(parts[0], parts[1]);
+    }
+
+    private Build toBuild(IngestRequest req) {
+        return Build.builder()
+            .id(req.runId != null ? runBuildId(req.repositoryName, req.runId) : String.valueOf(buildIdCounter.incrementAndGet()))
             .repositoryName(req.repositoryName)
             .branch(req.branch)
-            .status(status)
+            .status(parseStatus(req.status))
             .durationSeconds(req.durationSeconds)
-            .triggeredAt(triggeredAt)
+            .triggeredAt(parseInstant(req.triggeredAt))
             .commitHash(req.commitHash)
+            .runId(req.runId)
+            .runAttempt(req.runAttempt)
             .build();
-        dataStore.addBuild(build);
-
-        if (status == BuildStatus.FAILED || status == BuildStatus.FLAKY) {
-            Failure failure = Failure.builder()
-                .id(UUID.randomUUID().toString())
-                .buildId(buildId)
-                .failureType(failureType)
-                .errorMessage(status + ": " + failureType)
-                .frequencyCount(1)
-                .firstSeenAt(triggeredAt)
-                .lastSeenAt(triggeredAt)
-                .build();
-            dataStore.addFailure(failure);
+    }
+
+    private void recordFailureOf(Build build, IngestRequest req) {
+        Occurrence occurrence = failureOf(build, req);
+        if (occurrence != null) {
+            record(occurrence);
+        }
+    }
+
+    /**
+     * Failure occurrence of an ingested build, or null if the build did not fail
+     */
+    private Occurrence failureOf(Build build, IngestRequest req) {
+        if (!build.isFailed()) {
+            return null;
         }
+        boolean hasErrorMessage = req.errorMessage != null && !req.errorMessage.isBlank();
+        // Without an explicit type, classify the error text extracted from logs
+        FailureType failureType = req.failureType == null && hasErrorMessage
+            ? failureClassifier.classifyMessage(req.errorMessage)
+            : parseFailureType(req.failureType);
+        return occurrence(build, failureType, req.failureType != null,
+            hasErrorMessage ? req.errorMessage : build.getStatus() + ": " + failureType);
+    }
+
+    /**
+     * Stream a JUnit/Surefire XML report (or zip artifact of reports) of a build into the per-test counters
+     *
+     * The XML is parsed as it streams in; the parsed test results are staged
+     * in a list and counters change only after the whole report parsed.
+     * Tests the build already reported in an earlier upload are not counted again.
+     *
+     * @return Totals of the upload, or null when the repository is not registered
+     *         or has no build with this id
+     * @throws IOException on read errors or malformed XML (nothing is recorded)
+     */
+    public JUnitReportSummary ingestJUnitReport(String repositoryName, String buildId, InputStream report) throws IOException {
+        if (!isRegistered(repositoryName) || !dataStore.containsBuild(repositoryName, buildId)) {
+            return null;
+        }
+        List<TestResultIndex.Execution> executions = new ArrayList<>();
+        JUnitReportSummary summary = junitParser.parse(report, result ->
+            executions.add(new TestResultIndex.Execution(result.testName(), result.outcome(), result.durationMillis())));
+        int alreadyRecorded = testResultIndex.recordBuild(repositoryName, buildId, executions);
+        return summary.withAlreadyRecorded(alreadyRecorded);
+    }
+
+    /**
+     * Store a build and place its commit on the repository timeline
+     *
+     * Builds with a run id are upserted: an already stored attempt of the
+     * run is a no-op, a newer attempt replaces it.
+     *
+     * @return false if the build was already stored (callers skip its failure)
+     */
+    public boolean recordBuild(Build build) {
+        if (!dataStore.upsertBuild(build)) {
+            return false;
+        }
+        correlationIndex.recordBuild(build);
         return true;
     }
 
+    /**
+     * Build id of a CI run: repositoryName#runId
+     *
+     * Run ids are only unique per CI system and may overlap the counter ids
+     * of builds without one, so they are scoped to the repository.
+     */
+    public static String runBuildId(String repositoryName, long runId) {
+        return InMemoryDataStore.runKey(repositoryName, runId);
+    }
+
+    /**
+     * Whether this attempt (or a newer one) of a CI run was already ingested
+     */
+    public boolean isRunIngested(String repositoryName, long runId, Integer runAttempt) {
+        return dataStore.containsRun(repositoryName, runId, runAttempt);
+    }
+
+    /**
+     * Record a failure occurrence for a build.
+     * Occurrences are keyed by the fingerprint of the build's repository and
+     * the normalized error message, so repeated problems of a repository
+     * increment one Failure instead of adding new ones; the same message in
+     * another repository is a separate Failure.
+     * New fingerprints are also assigned to a near-duplicate cluster, the
+     * build's commit is correlated with the fingerprint, and its decayed
+     * trending score is bumped.
+     *
+     * @param typeReported true if failureType came from the reporter, false if
+     *                     it was classified or defaulted (re-classification may change it)
+     * @return the aggregated failure for this fingerprint
+     */
+    public Failure recordFailure(Build build, FailureType failureType, boolean typeReported, String errorMessage) {
+        return record(occurrence(build, failureType, typeReported, errorMessage));
+    }
+
+    private Failure record(Occurrence occurrence) {
+        Failure failure = occurrence.failure();
+        failure.setClusterId(clusterIndex.assign(failure.getFingerprint(), occurrence.normalized()));
+        correlationIndex.recordFailure(failure.getFingerprint(), occurrence.build());
+        trendingIndex.record(failure.getFingerprint(), occurrence.build().getTriggeredAt());
+        return dataStore.upsertFailure(failure);
+    }
+
+    /**
+     * record for a batch: the stored builds in order, the fingerprint each hit
+     * (null if none) and their failure occurrences
+     */
+    private void recordAll(List<Build> builds, List<String> fingerprintByBuild, List<Occurrence> occurrences) {
+        correlationIndex.recordAll(builds, fingerprintByBuild);
+        if (occurrences.isEmpty()) {
+            return;
+        }
+        List<String> fingerprints = new ArrayList<>(occurrences.size());
+        List<String> normalized = new ArrayList<>(occurrences.size());
+        List<Instant> seenAt = new ArrayList<>(occurrences.size());
+        List<Failure> failures = new ArrayList<>(occurrences.size());
+        for (Occurrence occurrence : occurrences) {
+            fingerprints.add(occurrence.failure().getFingerprint());
+            normalized.add(occurrence.normalized());
+            seenAt.add(occurrence.build().getTriggeredAt());
+            failures.add(occurrence.failure());
+        }
+        List<String> clusterIds = clusterIndex.assignAll(fingerprints, normalized);
+        for (int i = 0; i < failures.size(); i++) {
+            failures.get(i).setClusterId(clusterIds.get(i));
+        }
+        trendingIndex.recordAll(fingerprints, seenAt);
+        dataStore.upsertFailures(failures);
+    }
+
+    /**
+     * A build's failure before it is recorded (cluster id not yet assigned)
+     */
+    private Occurrence occurrence(Build build, FailureType failureType, boolean typeReported, String errorMessage) {
+        String normalized = fingerprinter.normalize(errorMessage);
+        String fingerprint = FailureFingerprinter.toHex(fingerprinter.hash64(build.getRepositoryName(), normalized));
+        Failure failure = Failure.builder()
+            .id(fingerprint)
+            .fingerprint(fingerprint)
+            .buildId(build.getId())
+            .buildIds(new ArrayList<>(List.of(build.getId())))
+            .failureType(failureType)
+            .typeReported(typeReported)
+            .errorMessage(errorMessage)
+            .frequencyCount(1)
+            .firstSeenAt(build.getTriggeredAt())
+            .lastSeenAt(build.getTriggeredAt())
+            .build();
+        return new Occurrence(build, failure, normalized);
+    }
+
+    private record Occurrence(Build build, Failure failure, String normalized) {}
+
     public List<Build> getBuilds() {
         return dataStore.getBuilds();
     }
@@ -71,6 +424,92 @@ public class IngestService {
         return dataStore.getFailures();
     }
 
+    /**
+     * Failures active at any point in [from, to]; open ends default to unbounded
+     */
+    public List<Failure> getFailuresActiveBetween(Instant from, Instant to) {
+        return dataStore.getFailuresActiveBetween(
+            from != null ? from : Instant.EPOCH,
+            to != null ? to : Instant.ofEpochMilli(Long.MAX_VALUE));
+    }
+
+    /**
+     * Near-duplicate failure clusters, largest total frequency first
+     */
+    public List<FailureCluster> getFailureClusters() {
+        List<FailureCluster> result = new ArrayList<>();
+        clusterIndex.getClusters().forEach((clusterId, fingerprints) -> {
+            List<Failure> members = new ArrayList<>(fingerprints.size());
+            for (String fingerprint : fingerprints) {
+                Failure failure = dataStore.getFailure(fingerprint);
+                if (failure != null) {
+                    members.add(failure);
+                }
+            }
+            if (members.isEmpty()) {
+                return;
+            }
+            Failure representative = members.get(0);
+            int totalFrequency = 0;
+            Instant lastSeenAt = null;
+            for (Failure member : members) {
+                totalFrequency += member.getFrequencyCount() != null ? member.getFrequencyCount() : 0;
+                if (member.getLastSeenAt() != null && (lastSeenAt == null || member.getLastSeenAt().isAfter(lastSeenAt))) {
+                    lastSeenAt = member.getLastSeenAt();
+                }
+            }
+            result.add(FailureCluster.builder()
+                .clusterId(clusterId)
+                .representativeMessage(representative.getErrorMessage())
+                .failureType(representative.getFailureType())
+                .memberCount(members.size())
+                .totalFrequency(totalFrequency)
+                .lastSeenAt(lastSeenAt)
+                .failures(members)
+                .build());
+        });
+        result.sort(Comparator.comparingInt(FailureCluster::getTotalFrequency).reversed());
+        return result;
+    }
+
+    /**
+     * Failures with the highest exponentially decayed occurrence scores
+     *
+     * @param limit Clamped to [1, bfis.trending.capacity]
+     */
+    public List<TrendingFailure> getTrendingFailures(int limit) {
+        List<TrendingFailureIndex.TrendingScore> scores = trendingIndex.getTrending(limit);
+        List<TrendingFailure> result = new ArrayList<>(scores.size());
+        for (TrendingFailureIndex.TrendingScore trending : scores) {
+            Failure failure = dataStore.getFailure(trending.fingerprint());
+            if (failure != null) {
+                result.add(TrendingFailure.builder()
+                    .score(trending.score())
+                    .failure(failure)
+                    .build());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Commits suspected of introducing a failure fingerprint
+     *
+     * @param repositoryName Repository to look in; defaults to where the fingerprint was first seen
+     * @return null when the fingerprint is unknown (in that repository)
+     */
+    public CommitCorrelationIndex.SuspectCommits getSuspectCommits(String fingerprint, String repositoryName) {
+        String repo = repositoryName;
+        if (repo == null || repo.isBlank()) {
+            List<String> repos = correlationIndex.repositoriesFor(fingerprint);
+            if (repos.isEmpty()) {
+                return null;
+            }
+            repo = repos.get(0);
+        }
+        return correlationIndex.findSuspects(repo, fingerprint);
+    }
+
     public Map<String, Object> getMetrics() {
         List<Build> builds = dataStore.getBuilds();
         int totalBuilds = builds.size();
@@ -0,0 +1,78 @@
+package com.devops.bfis.api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers recently seen X-GitHub-Delivery ids so redeliveries are dropped
+ *
+ * Two generations of concurrent sets: ids are added to the current one and
+ * looked up in both. Once per ttl (or when the current generation reaches
+ * half of max-entries) the previous generation is discarded and the current
+ * one takes its place, so an id is remembered for at least ttl unless the
+ * size bound forces an early rotation. Memory stays bounded by max-entries
+ * ids without any per-entry timestamps or sweeping.
+ */
+@Component
+public class WebhookDeliveryDeduplicator {
+
+    private final long ttlMillis;
+    private final int generationLimit;
+
+    private volatile Set<String> current = ConcurrentHashMap.newKeySet();
+    private volatile Set<String> previous = ConcurrentHashMap.newKeySet();
+    private volatile long rotatedAt = System.currentTimeMillis();
+
+    public WebhookDeliveryDeduplicator(
+            @Value("${bfis.webhook.dedup.ttl:PT6H}") Duration ttl,
+            @Value("${bfis.webhook.dedup.max-entries:100000}") int maxEntries
+    ) {
+        this.ttlMillis = Math.max(ttl.toMillis(), 1);
+        this.generationLimit = Math.max(maxEntries / 2, 1);
+    }
+
+    /**
+     * Record a delivery id
+     *
+     * @return false if the id was already seen (a redelivery)
+     */
+    public boolean markIfNew(String deliveryId) {
+        rotateIfDue();
+        if (previous.contains(deliveryId)) {
+            return false;
+        }
+        return current.add(deliveryId);
+    }
+
+    /**
+     * Forget a delivery that was not accepted, so its redelivery is processed
+     */
+    public void forget(String deliveryId) {
+        current.remove(deliveryId);
+        previous.remove(deliveryId);
+    }
+
+    public int size() {
+        return current.size() + previous.size();
+    }
+
+    private void rotateIfDue() {
+        if (System.currentTimeMillis() - rotatedAt < ttlMillis && current.size() < generationLimit) {
+            return;
+        }
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (now - rotatedAt < ttlMillis && current.size() < generationLimit) {
+                return;
+            }
+            // Idle for two periods: both generations are stale
+            previous = now - rotatedAt >= 2 * ttlMillis ? ConcurrentHashMap.newKeySet() : current;
+            current = ConcurrentHashMap.newKeySet();
+            rotatedAt = now;
+        }
+    }
+}
@@ -55,6 +55,17 @@ public class Build {
      */
     private String commitHash;
     
+    /**
+     * CI run id in the external system (e.g. GitHub Actions run id), if known
+     * Builds with a run id are stored once per repository and run
+     */
+    private Long runId;
+    
+    /**
+     * Attempt number of the run; a re-run replaces the earlier attempt
+     */
+    private Integer runAttempt;
+    
     /**
      * Helper method to check if build failed
      */
@@ -2,38 +2,70 @@ package com.devops.bfis.core.domain;
 
 import com.devops.bfis.core.enums.FailureType;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Domain model representing a build failure with analysis data
  * Contract matched to frontend expectations
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Failure {
     
+    /**
+     * Upper bound on contributing build ids kept per failure pattern
+     */
+    public static final int MAX_TRACKED_BUILD_IDS = 20;
+    
     /**
      * Unique failure identifier
      */
     private String id;
     
     /**
-     * Associated build ID
+     * Associated build ID (most recent build that hit this failure)
      */
     private String buildId;
     
+    /**
+     * Stable fingerprint of the repository and the normalized error message
+     */
+    private String fingerprint;
+    
+    /**
+     * Near-duplicate cluster this failure pattern belongs to
+     */
+    private String clusterId;
+    
+    /**
+     * Most recent builds that hit this failure pattern, oldest first
+     * Bounded by MAX_TRACKED_BUILD_IDS so memory scales with distinct failures
+     */
+    @Builder.Default
+    private List<String> buildIds = new ArrayList<>();
+    
     /**
      * Categorized failure type: test | dependency | docker | infra
      */
     private FailureType failureType;
     
+    /**
+     * Whether failureType was given by the reporter rather than classified
+     * Reported types are kept when failures are re-classified
+     */
+    @JsonIgnore
+    private boolean typeReported;
+    
     /**
      * Error message extracted from logs
      */
@@ -56,6 +88,38 @@ public class Failure {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
     private Instant lastSeenAt;
     
+    /**
+     * Copy of this failure pattern with another occurrence recorded
+     * 
+     * This instance is left unchanged, so a stored failure can be replaced
+     * by the copy (e.g. in ConcurrentHashMap.compute) while readers still
+     * holding the old instance never observe it being modified.
+     */
+    public Failure recordOccurrence(String occurrenceBuildId, Instant seenAt) {
+        Failure updated = toBuilder().build();
+        updated.frequencyCount = frequencyCount == null ? 1 : frequencyCount + 1;
+        
+        if (seenAt != null) {
+            if (firstSeenAt == null || seenAt.isBefore(firstSeenAt)) {
+                updated.firstSeenAt = seenAt;
+            }
+            if (lastSeenAt == null || !seenAt.isBefore(lastSeenAt)) {
+                updated.lastSeenAt = seenAt;
+                updated.buildId = occurrenceBuildId;
+            }
+        }
+        
+        if (occurrenceBuildId != null) {
+            List<String> previous = buildIds != null ? buildIds : List.of();
+            int skip = Math.max(0, previous.size() + 1 - MAX_TRACKED_BUILD_IDS);
+            List<String> ids = new ArrayList<>(Math.min(previous.size() + 1, MAX_TRACKED_BUILD_IDS));
+            ids.addAll(previous.subList(skip, previous.size()));
+            ids.add(occurrenceBuildId);
+            updated.buildIds = ids;
+        }
+        return updated;
+    }
+    
     /**
      * Helper to check if this is a recurring issue
      */
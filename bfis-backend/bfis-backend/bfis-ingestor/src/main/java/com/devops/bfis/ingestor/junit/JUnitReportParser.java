@@ -0,0 +1,208 @@
+package com.devops.bfis.ingestor.junit;
+
+import com.devops.bfis.analyzer.testresult.TestOutcome;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Streaming parser for JUnit / Surefire XML test reports
+ *
+ * Reports are read with a StAX cursor, so memory use does not depend on the
+ * report size: no DOM is built and captured output (system-out, stack traces)
+ * is skipped as it streams past. Accepts a single XML report (testsuite or
+ * testsuites root) or a zip archive of reports, e.g. a CI artifact.
+ *
+ * Outcome of a testcase, from its child elements:
+ * - failure / error                 -> FAILED
+ * - flakyFailure / flakyError only  -> FLAKY (passed on rerun)
+ * - skipped                         -> SKIPPED
+ * - none of the above               -> PASSED
+ *
+ * DTDs and external entities are disabled. Instances are stateless and shareable.
+ */
+public final class JUnitReportParser {
+
+    private final XMLInputFactory factory;
+
+    public JUnitReportParser() {
+        factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+    }
+
+    /**
+     * Parse a report (or zip of reports), handing every testcase to the consumer
+     *
+     * The stream is read sequentially and not closed.
+     *
+     * @throws IOException on read errors or malformed XML
+     */
+    public JUnitReportSummary parse(InputStream input, Consumer<TestCaseResult> consumer) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(input);
+        Counts counts = new Counts();
+        if (isZip(in)) {
+            ZipInputStream zip = new ZipInputStream(in);
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (!entry.isDirectory() && entry.getName().toLowerCase(Locale.ROOT).endsWith(".xml")) {
+                    parseXml(new NonClosingInputStream(zip), entry.getName(), consumer, counts);
+                    counts.reports++;
+                }
+            }
+        } else {
+            parseXml(new NonClosingInputStream(in), "report", consumer, counts);
+            counts.reports++;
+        }
+        return new JUnitReportSummary(counts.reports, counts.tests, counts.passed, counts.failed,
+                counts.flaky, counts.skipped, 0);
+    }
+
+    private void parseXml(InputStream in, String source, Consumer<TestCaseResult> consumer, Counts counts)
+            throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = factory.createXMLStreamReader(in);
+            String suiteName = null;
+            TestCaseBuilder current = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "testsuite" -> suiteName = reader.getAttributeValue(null, "name");
+                        case "testcase" -> current = new TestCaseBuilder(
+                                reader.getAttributeValue(null, "classname"),
+                                reader.getAttributeValue(null, "name"),
+                                reader.getAttributeValue(null, "time"),
+                                suiteName);
+                        case "failure", "error", "rerunFailure", "rerunError" -> {
+                            if (current != null) current.failed = true;
+                        }
+                        case "flakyFailure", "flakyError" -> {
+                            if (current != null) current.flaky = true;
+                        }
+                        case "skipped" -> {
+                            if (current != null) current.skipped = true;
+                        }
+                        default -> { }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && current != null
+                        && "testcase".equals(reader.getLocalName())) {
+                    TestCaseResult result = current.build();
+                    counts.add(result.outcome());
+                    consumer.accept(result);
+                    current = null;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed JUnit XML in " + source + ": " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // Nothing left to release
+                }
+            }
+        }
+    }
+
+    private static boolean isZip(BufferedInputStream in) throws IOException {
+        in.mark(4);
+        byte[] magic = new byte[4];
+        int n = in.readNBytes(magic, 0, 4);
+        in.reset();
+        return n == 4 && magic[0] == 'P' && magic[1] == 'K' && magic[2] == 3 && magic[3] == 4;
+    }
+
+    /**
+     * One executed test case
+     *
+     * @param testName classname.name (suite name when classname is missing)
+     */
+    public record TestCaseResult(String testName, TestOutcome outcome, long durationMillis) {}
+
+    private static final class TestCaseBuilder {
+        final String className;
+        final String name;
+        final String time;
+        final String suiteName;
+        boolean failed;
+        boolean flaky;
+        boolean skipped;
+
+        TestCaseBuilder(String className, String name, String time, String suiteName) {
+            this.className = className;
+            this.name = name;
+            this.time = time;
+            this.suiteName = suiteName;
+        }
+
+        TestCaseResult build() {
+            String owner = className != null && !className.isEmpty() ? className : suiteName;
+            String testName = owner != null ? owner + "." + name : name;
+            TestOutcome outcome = failed ? TestOutcome.FAILED
+                    : flaky ? TestOutcome.FLAKY
+                    : skipped ? TestOutcome.SKIPPED
+                    : TestOutcome.PASSED;
+            return new TestCaseResult(testName, outcome, parseMillis(time));
+        }
+
+        private static long parseMillis(String seconds) {
+            if (seconds == null || seconds.isEmpty()) {
+                return 0;
+            }
+            try {
+                // Some reporters emit thousands separators ("1,234.5")
+                return Math.round(Double.parseDouble(seconds.replace(",", "")) * 1000);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * The JDK StAX reader closes its input at end of document; keep the
+     * caller's stream (and the remaining zip entries) open
+     */
+    private static final class NonClosingInputStream extends FilterInputStream {
+        NonClosingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() {
+            // Owned by the caller
+        }
+    }
+
+    private static final class Counts {
+        int reports;
+        int tests;
+        int passed;
+        int failed;
+        int flaky;
+        int skipped;
+
+        void add(TestOutcome outcome) {
+            tests++;
+            switch (outcome) {
+                case PASSED -> passed++;
+                case FAILED -> failed++;
+                case FLAKY -> flaky++;
+                case SKIPPED -> skipped++;
+            }
+        }
+    }
+}
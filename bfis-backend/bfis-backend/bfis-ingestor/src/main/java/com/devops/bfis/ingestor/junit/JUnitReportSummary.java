@@ -0,0 +1,21 @@
+package com.devops.bfis.ingestor.junit;
+
+/**
+ * Totals of one parsed JUnit upload
+ *
+ * @param reports Number of XML reports read (more than one for zip archives)
+ * @param alreadyRecorded Executions skipped because an earlier upload for the build reported them
+ */
+public record JUnitReportSummary(
+        int reports,
+        int tests,
+        int passed,
+        int failed,
+        int flaky,
+        int skipped,
+        int alreadyRecorded
+) {
+    public JUnitReportSummary withAlreadyRecorded(int alreadyRecorded) {
+        return new JUnitReportSummary(reports, tests, passed, failed, flaky, skipped, alreadyRecorded);
+    }
+}
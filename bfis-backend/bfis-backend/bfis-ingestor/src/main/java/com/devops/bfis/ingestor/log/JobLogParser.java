@@ -0,0 +1,296 @@
+package com.devops.bfis.ingestor.log;
+
+import com.devops.bfis.analyzer.classifier.KeywordAutomaton;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Streaming extractor for error lines in CI job logs
+ *
+ * GitHub Actions job logs can be tens of megabytes (plain text for a single
+ * job, zip archive for a whole run). The parser never holds the log in memory:
+ * - input is decoded through a fixed-size char buffer
+ * - lines longer than maxLineLength are truncated while streaming
+ * - only a ring of the last contextLines lines is kept for context
+ * - reading stops once maxExcerpts excerpts are complete or maxBytes is reached
+ *
+ * Error lines are detected with a keyword automaton of specific markers
+ * (##[error], Exception:, BUILD FAILURE, npm ERR!, ...) plus a few markers
+ * that only count at the start of a line (FAILED, FAIL, Killed). Bare words
+ * like "failure" are not markers, so summaries such as
+ * "Tests run: 10, Failures: 0" stay context. Generic runner noise such as
+ * "Process completed with exit code 1" is kept as context but never reported
+ * as the primary error.
+ *
+ * When maxBytes cuts the log short (also in the middle of a zip entry), the
+ * excerpts found so far are returned with truncated set.
+ *
+ * Instances are immutable and can be shared; each parse call has its own state.
+ */
+public final class JobLogParser {
+
+    private static final int ERROR = 0;
+    private static final int NOISE = 1;
+
+    private static final KeywordAutomaton MARKERS = KeywordAutomaton.builder()
+            .add(ERROR, "##[error]", "[error]", "error:", "exception:", "fatal:", "npm err!",
+                    "traceback (most recent call last)", "panic:", "segmentation fault", "oomkilled",
+                    "build failure", "build failed", "--- fail:")
+            .add(NOISE, "process completed with exit code", "##[endgroup]")
+            .build();
+
+    /** Case-sensitive markers that only count at the start of a line (pytest, jest, kernel OOM killer) */
+    private static final String[] LINE_START_MARKERS = {"FAILED", "FAIL ", "Killed"};
+
+    private static final int READ_BUFFER_CHARS = 8192;
+    private static final int MAX_ERROR_LINES = 20;
+
+    private final int maxLineLength;
+    private final int contextLines;
+    private final int maxExcerpts;
+    private final long maxBytes;
+
+    public JobLogParser(int maxLineLength, int contextLines, int maxExcerpts, long maxBytes) {
+        this.maxLineLength = maxLineLength;
+        this.contextLines = contextLines;
+        this.maxExcerpts = maxExcerpts;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Parse a job log stream: plain text, or a zip archive of per-step logs
+     *
+     * The stream is read sequentially and not closed.
+     */
+    public JobLogSummary parse(InputStream input) throws IOException {
+        CountingInputStream counted = new CountingInputStream(input, maxBytes);
+        BufferedInputStream in = new BufferedInputStream(counted);
+        ParseState state = new ParseState();
+
+        try {
+            if (isZip(in)) {
+                ZipInputStream zip = new ZipInputStream(in, StandardCharsets.UTF_8);
+                ZipEntry entry;
+                while (!state.done() && (entry = zip.getNextEntry()) != null) {
+                    if (!entry.isDirectory()) {
+                        // Zip entries hit EOF at the entry boundary; the reader is not closed on purpose
+                        scan(new InputStreamReader(zip, StandardCharsets.UTF_8), state);
+                        state.flushExcerpt();
+                    }
+                }
+            } else {
+                scan(new InputStreamReader(in, StandardCharsets.UTF_8), state);
+            }
+        } catch (IOException e) {
+            // A zip cut off at maxBytes ends with an unexpected EOF; keep what was parsed
+            if (!counted.limitReached) {
+                throw e;
+            }
+        }
+        state.flushExcerpt();
+
+        return new JobLogSummary(
+                List.copyOf(state.errorLines),
+                List.copyOf(state.excerpts),
+                counted.count,
+                state.linesRead,
+                counted.limitReached
+        );
+    }
+
+    private void scan(Reader reader, ParseState state) throws IOException {
+        char[] buffer = new char[READ_BUFFER_CHARS];
+        StringBuilder line = new StringBuilder(Math.min(maxLineLength, 256));
+        boolean lineTruncated = false;
+        int read;
+        while (!state.done() && (read = reader.read(buffer)) > 0) {
+            for (int i = 0; i < read; i++) {
+                char c = buffer[i];
+                if (c == '\n') {
+                    state.acceptLine(line);
+                    line.setLength(0);
+                    lineTruncated = false;
+                    if (state.done()) {
+                        return;
+                    }
+                } else if (c != '\r') {
+                    if (line.length() < maxLineLength) {
+                        line.append(c);
+                    } else if (!lineTruncated) {
+                        line.append("...");
+                        lineTruncated = true;
+                    }
+                }
+            }
+        }
+        if (line.length() > 0) {
+            state.acceptLine(line);
+        }
+    }
+
+    private static boolean isZip(BufferedInputStream in) throws IOException {
+        in.mark(4);
+        byte[] magic = new byte[4];
+        int n = in.readNBytes(magic, 0, 4);
+        in.reset();
+        return n == 4 && magic[0] == 'P' && magic[1] == 'K' && magic[2] == 3 && magic[3] == 4;
+    }
+
+    /**
+     * Drop the runner timestamp prefix: "2024-01-15T10:30:00.1234567Z message"
+     */
+    static int contentStart(CharSequence line) {
+        if (line.length() > 20 && line.charAt(4) == '-' && line.charAt(7) == '-' && line.charAt(10) == 'T') {
+            int limit = Math.min(line.length(), 40);
+            for (int i = 19; i < limit; i++) {
+                if (line.charAt(i) == ' ') {
+                    return i + 1;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private final class ParseState {
+        final String[] ring = new String[Math.max(contextLines, 1)];
+        int ringSize;
+        int ringNext;
+
+        final List<String> errorLines = new ArrayList<>();
+        final List<String> excerpts = new ArrayList<>();
+        StringBuilder currentExcerpt;
+        int pendingAfter;
+        long linesRead;
+
+        boolean done() {
+            return excerpts.size() >= maxExcerpts && currentExcerpt == null;
+        }
+
+        void acceptLine(StringBuilder raw) {
+            linesRead++;
+            String content = raw.substring(contentStart(raw));
+            long matched = MARKERS.match(content);
+            boolean error = (matched & (1L << ERROR)) != 0L || startsWithMarker(content);
+            boolean noise = (matched & (1L << NOISE)) != 0L;
+
+            if (error && !noise) {
+                if (errorLines.size() < MAX_ERROR_LINES) {
+                    errorLines.add(stripMarker(content));
+                }
+                if (currentExcerpt == null) {
+                    startExcerpt();
+                }
+                currentExcerpt.append(content).append('\n');
+                pendingAfter = contextLines;
+                if (pendingAfter == 0) {
+                    flushExcerpt();
+                }
+            } else if (currentExcerpt != null) {
+                currentExcerpt.append(content).append('\n');
+                if (--pendingAfter <= 0) {
+                    flushExcerpt();
+                }
+            }
+            remember(content);
+        }
+
+        void startExcerpt() {
+            currentExcerpt = new StringBuilder();
+            for (int i = 0; i < ringSize; i++) {
+                int idx = (ringNext - ringSize + i + ring.length) % ring.length;
+                currentExcerpt.append(ring[idx]).append('\n');
+            }
+        }
+
+        void flushExcerpt() {
+            if (currentExcerpt != null) {
+                if (excerpts.size() < maxExcerpts) {
+                    excerpts.add(currentExcerpt.toString());
+                }
+                currentExcerpt = null;
+                pendingAfter = 0;
+            }
+        }
+
+        void remember(String content) {
+            if (contextLines <= 0) {
+                return;
+            }
+            ring[ringNext] = content;
+            ringNext = (ringNext + 1) % ring.length;
+            if (ringSize < ring.length) {
+                ringSize++;
+            }
+        }
+    }
+
+    private static boolean startsWithMarker(String content) {
+        int start = 0;
+        while (start < content.length() && Character.isWhitespace(content.charAt(start))) {
+            start++;
+        }
+        for (String marker : LINE_START_MARKERS) {
+            if (content.startsWith(marker, start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripMarker(String content) {
+        if (content.startsWith("##[error]")) {
+            return content.substring("##[error]".length()).trim();
+        }
+        return content.trim();
+    }
+
+    /**
+     * Counts bytes and reports EOF once the configured limit has been read
+     */
+    private static final class CountingInputStream extends InputStream {
+        private final InputStream delegate;
+        private final long limit;
+        long count;
+        boolean limitReached;
+
+        CountingInputStream(InputStream delegate, long limit) {
+            this.delegate = delegate;
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (count >= limit) {
+                limitReached = true;
+                return -1;
+            }
+            int b = delegate.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (count >= limit) {
+                limitReached = true;
+                return -1;
+            }
+            int n = delegate.read(b, off, (int) Math.min(len, limit - count));
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
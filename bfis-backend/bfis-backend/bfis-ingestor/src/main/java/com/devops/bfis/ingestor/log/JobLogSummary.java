@@ -0,0 +1,38 @@
+package com.devops.bfis.ingestor.log;
+
+import java.util.List;
+
+/**
+ * Result of streaming a CI job log
+ *
+ * @param errorLines Informative error lines in log order (runner timestamps and ##[error] markers stripped)
+ * @param excerpts Error lines with surrounding context, one string per excerpt
+ * @param bytesRead Bytes consumed from the log stream
+ * @param linesRead Lines scanned
+ * @param truncated Whether scanning stopped at the byte limit before the end of the log
+ */
+public record JobLogSummary(
+        List<String> errorLines,
+        List<String> excerpts,
+        long bytesRead,
+        long linesRead,
+        boolean truncated
+) {
+    public static JobLogSummary empty() {
+        return new JobLogSummary(List.of(), List.of(), 0, 0, false);
+    }
+
+    /**
+     * First informative error line, or null when the log had none
+     */
+    public String primaryError() {
+        return errorLines.isEmpty() ? null : errorLines.get(0);
+    }
+
+    /**
+     * All error lines joined for classification
+     */
+    public String errorText() {
+        return String.join("\n", errorLines);
+    }
+}
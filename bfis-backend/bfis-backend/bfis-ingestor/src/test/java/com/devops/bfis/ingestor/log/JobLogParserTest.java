@@ -0,0 +1,116 @@
+package com.devops.bfis.ingestor.log;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobLogParserTest {
+
+    private final JobLogParser parser = new JobLogParser(2000, 3, 5, 64L * 1024 * 1024);
+
+    @Test
+    void extractsExceptionAsPrimaryErrorAndSkipsPassingSummaries() throws IOException {
+        JobLogSummary summary = parser.parse(fixture("maven-test-failure.txt"));
+
+        assertThat(summary.primaryError())
+                .isEqualTo("java.lang.IllegalStateException: order total must not be negative");
+        assertThat(summary.errorLines())
+                .contains("[INFO] BUILD FAILURE")
+                .noneMatch(line -> line.contains("Failures: 0"))
+                .noneMatch(line -> line.contains("Process completed with exit code"));
+        assertThat(summary.excerpts()).isNotEmpty();
+        assertThat(summary.excerpts().get(0)).contains("[INFO] Running com.example.OrderServiceTest");
+        assertThat(summary.truncated()).isFalse();
+    }
+
+    @Test
+    void cleanRunHasNoErrors() throws IOException {
+        JobLogSummary summary = parser.parse(fixture("clean-run.txt"));
+
+        assertThat(summary.errorLines()).isEmpty();
+        assertThat(summary.primaryError()).isNull();
+        assertThat(summary.linesRead()).isEqualTo(6);
+    }
+
+    @Test
+    void failedMarkerCountsOnlyAtLineStart() throws IOException {
+        JobLogSummary summary = parser.parse(fixture("pytest-failure.txt"));
+
+        assertThat(summary.primaryError())
+                .startsWith("FAILED tests/test_api.py::test_orders");
+        assertThat(summary.errorLines()).noneMatch(line -> line.contains("1 failed, 1 passed"));
+    }
+
+    @Test
+    void parsesZippedStepLogs() throws IOException {
+        byte[] zip = zip("1_Set up job.txt", bytes("clean-run.txt"), "2_Test.txt", bytes("maven-test-failure.txt"));
+
+        JobLogSummary summary = parser.parse(new ByteArrayInputStream(zip));
+
+        assertThat(summary.primaryError())
+                .isEqualTo("java.lang.IllegalStateException: order total must not be negative");
+        assertThat(summary.truncated()).isFalse();
+    }
+
+    @Test
+    void keepsExcerptsWhenZipIsCutOffAtMaxBytes() throws IOException {
+        StringBuilder filler = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            filler.append("2024-01-15T10:31:00.0000000Z [INFO] downloading artifact ").append(i).append('\n');
+        }
+        byte[] zip = zip("1_Test.txt", bytes("maven-test-failure.txt"),
+                "2_Upload.txt", filler.toString().getBytes(StandardCharsets.UTF_8));
+        JobLogParser limited = new JobLogParser(2000, 3, 5, zip.length / 2);
+
+        JobLogSummary summary = limited.parse(new ByteArrayInputStream(zip));
+
+        assertThat(summary.truncated()).isTrue();
+        assertThat(summary.bytesRead()).isEqualTo(zip.length / 2);
+        assertThat(summary.primaryError())
+                .isEqualTo("java.lang.IllegalStateException: order total must not be negative");
+        assertThat(summary.excerpts()).isNotEmpty();
+    }
+
+    @Test
+    void stopsPlainTextAtMaxBytes() throws IOException {
+        JobLogParser limited = new JobLogParser(2000, 3, 5, 100);
+
+        JobLogSummary summary = limited.parse(fixture("clean-run.txt"));
+
+        assertThat(summary.truncated()).isTrue();
+        assertThat(summary.bytesRead()).isEqualTo(100);
+    }
+
+    private static InputStream fixture(String name) {
+        InputStream in = JobLogParserTest.class.getResourceAsStream("/joblogs/" + name);
+        assertThat(in).as("fixture %s", name).isNotNull();
+        return in;
+    }
+
+    private static byte[] bytes(String name) throws IOException {
+        try (InputStream in = fixture(name)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] zip(String name1, byte[] content1, String name2, byte[] content2) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry(name1));
+            zip.write(content1);
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry(name2));
+            zip.write(content2);
+            zip.closeEntry();
+        }
+        return out.toByteArray();
+    }
+}